@@ -0,0 +1,71 @@
+package org.apache.lucene.analysis.ko.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.ko.morph.CompoundEntry;
+import org.apache.lucene.analysis.ko.morph.CompoundNounAnalyzer;
+import org.apache.lucene.analysis.ko.morph.MorphException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 복합명사 분해, 입력 길이별.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompoundNounBenchmark {
+
+  @Param({"4", "6", "8", "12", "16"})
+  public int length;
+
+  private CompoundNounAnalyzer analyzer;
+
+  private String[] inputs;
+
+  private int next;
+
+  @Setup
+  public void setUp() {
+    analyzer = new CompoundNounAnalyzer();
+    analyzer.setExactMach(false);
+    inputs = Inputs.compounds(length);
+  }
+
+  @Benchmark
+  public List<CompoundEntry> analyze() throws MorphException {
+    String input = inputs[next];
+    if(++next==inputs.length) next = 0;
+    return analyzer.analyze(input);
+  }
+}
@@ -0,0 +1,81 @@
+package org.apache.lucene.analysis.ko.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * 벤치마크에 사용하는 입력.
+ */
+final class Inputs {
+
+  /**
+   * 체언+조사, 용언+어미, 불규칙 활용, 복합명사, 미등록어가 섞인 어절
+   */
+  static final String[] EOJEOLS = {
+    "학교에서", "정보검색시스템을", "먹었다", "갔습니다", "아름다운", "하늘을", "나는",
+    "들었다", "도와주었다", "지어졌다", "빨갛게", "흘러가는", "사랑합니다", "것이다",
+    "형태소분석기는", "대한민국의", "공부하고", "있었다", "그러나", "매우", "빠르게",
+    "정부조직개편안이", "연구개발비를", "아리랑은", "에서부터", "했을까요", "보았지만",
+    "자연언어처리", "컴퓨터로", "2014년에", "Lucene을", "검색엔진과", "분석하였다"
+  };
+
+  /**
+   * 복합명사를 만드는 2음절 명사
+   */
+  static final String[] NOUNS = {
+    "정보", "검색", "관리", "개발", "학교", "교육", "과정", "연구", "기술", "분석", "방법", "체계"
+  };
+
+  /**
+   * 띄어쓰기가 되어 있지 않은 문장
+   */
+  static final String[] UNSPACED = {
+    "아버지가방에들어가신다",
+    "정보검색시스템을개발하였다",
+    "나는학교에서공부를하고있었다",
+    "형태소분석기는문장을어절단위로분석한다",
+    "오늘은날씨가매우맑고따뜻하다"
+  };
+
+  /**
+   * 띄어쓰기가 되어 있는 문장
+   */
+  static final String[] SENTENCES = {
+    "나는 학교에서 공부를 하고 있었다",
+    "형태소 분석기는 문장을 어절 단위로 분석한다",
+    "정보검색시스템을 개발하기 위해 많은 연구가 필요하다",
+    "그는 하늘을 보며 노래를 불렀다"
+  };
+
+  static final String HANJA = "加減抵抗器架空地線可能出力火力曲線可動率收縮移動裝置可變速油壓驅動苛性脆化加速感震計制限器";
+
+  private Inputs() {
+  }
+
+  /**
+   * Returns compound nouns of the given length (even), built from {@link #NOUNS}.
+   */
+  static String[] compounds(int length) {
+    String[] compounds = new String[NOUNS.length];
+    for(int i=0;i<compounds.length;i++) {
+      StringBuilder sb = new StringBuilder();
+      for(int j=i;sb.length()<length;j++) sb.append(NOUNS[j%NOUNS.length]);
+      compounds[i] = sb.substring(0, length);
+    }
+    return compounds;
+  }
+}
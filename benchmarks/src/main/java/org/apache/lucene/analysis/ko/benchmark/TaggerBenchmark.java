@@ -0,0 +1,86 @@
+package org.apache.lucene.analysis.ko.benchmark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.ko.morph.AnalysisOutput;
+import org.apache.lucene.analysis.ko.morph.MorphAnalyzer;
+import org.apache.lucene.analysis.ko.morph.MorphException;
+import org.apache.lucene.analysis.ko.tagging.Tagger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 문장 단위의 태깅.
+ * The eojeols are analyzed in the setup, so that only the tagging is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaggerBenchmark {
+
+  private String[][] words;
+
+  private List<List<List<AnalysisOutput>>> morphs;
+
+  private int next;
+
+  @Setup
+  public void setUp() throws MorphException {
+    MorphAnalyzer analyzer = new MorphAnalyzer();
+    words = new String[Inputs.SENTENCES.length][];
+    morphs = new ArrayList<List<List<AnalysisOutput>>>();
+    for(int i=0;i<Inputs.SENTENCES.length;i++) {
+      words[i] = Inputs.SENTENCES[i].split(" ");
+      List<List<AnalysisOutput>> sentence = new ArrayList<List<AnalysisOutput>>();
+      for(String word : words[i]) sentence.add(analyzer.analyze(word));
+      morphs.add(sentence);
+    }
+  }
+
+  @Benchmark
+  public void tagging(Blackhole bh) throws MorphException {
+    String[] sentence = words[next];
+    List<List<AnalysisOutput>> outputs = morphs.get(next);
+    if(++next==words.length) next = 0;
+
+    Tagger tagger = new Tagger();
+    for(int i=0;i<sentence.length;i++) {
+      if(i+1<sentence.length) {
+        bh.consume(tagger.tagging(sentence[i], sentence[i+1], outputs.get(i), outputs.get(i+1)));
+      } else {
+        bh.consume(tagger.tagging(sentence[i], outputs.get(i)));
+      }
+    }
+  }
+}
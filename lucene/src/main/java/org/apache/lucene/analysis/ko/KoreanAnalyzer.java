@@ -0,0 +1,52 @@
+package org.apache.lucene.analysis.ko;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.ko.morph.MorphAnalyzer;
+
+/**
+ * {@link KoreanTokenizer} 와 {@link KoreanFilter} 로 구성된 분석기.
+ * <p>
+ *
+ * All the components share one {@link MorphAnalyzer}. The components keep no
+ * state between the streams except their buffers, so they are reused by the
+ * default reuse strategy.
+ */
+public class KoreanAnalyzer extends Analyzer {
+
+  private final MorphAnalyzer morphAnalyzer;
+
+  public KoreanAnalyzer() {
+    this(new MorphAnalyzer());
+  }
+
+  public KoreanAnalyzer(MorphAnalyzer morphAnalyzer) {
+    this.morphAnalyzer = morphAnalyzer;
+  }
+
+  public MorphAnalyzer getMorphAnalyzer() {
+    return morphAnalyzer;
+  }
+
+  @Override
+  protected TokenStreamComponents createComponents(String fieldName) {
+    Tokenizer source = new KoreanTokenizer();
+    return new TokenStreamComponents(source, new KoreanFilter(source, morphAnalyzer));
+  }
+}
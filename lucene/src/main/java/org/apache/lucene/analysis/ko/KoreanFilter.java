@@ -0,0 +1,147 @@
+package org.apache.lucene.analysis.ko;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.ko.morph.AnalysisOutput;
+import org.apache.lucene.analysis.ko.morph.CompoundEntry;
+import org.apache.lucene.analysis.ko.morph.MorphAnalyzer;
+import org.apache.lucene.analysis.ko.morph.MorphException;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionLengthAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+
+/**
+ * 어절을 형태소 분석하여 어간과 복합명사의 단위명사를 색인어로 만든다.
+ * <p>
+ *
+ * Replaces each {@link KoreanTokenizer#TYPE_HANGUL} token with the stem of its
+ * best analysis, which is the noun without the josa for a noun or the stem of a
+ * verb.
+ * <p>
+ *
+ * A compound noun is returned as a token graph: the whole noun spans as many
+ * positions as it has parts ({@link PositionLengthAttribute}), and the parts follow
+ * one position each, the first one at the position of the whole noun. So phrase
+ * queries match both the whole noun and the parts. The parts have their own
+ * offsets when they spell the noun, otherwise the offsets of the eojeol.
+ * <p>
+ *
+ * The terms are copied into the reused term buffer, so the filter itself allocates
+ * nothing for a token; only the analysis of the eojeol does.
+ */
+public final class KoreanFilter extends TokenFilter {
+
+  private final MorphAnalyzer analyzer;
+
+  private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+  private final PositionIncrementAttribute posIncAtt = addAttribute(PositionIncrementAttribute.class);
+
+  private final PositionLengthAttribute posLenAtt = addAttribute(PositionLengthAttribute.class);
+
+  private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+  private final TypeAttribute typeAtt = addAttribute(TypeAttribute.class);
+
+  /**
+   * the parts of the compound noun which are not yet returned
+   */
+  private List<CompoundEntry> parts;
+
+  private int partIndex;
+
+  /**
+   * the start offset of the next part, or -1 if the parts have the offsets of the eojeol
+   */
+  private int partOffset;
+
+  /**
+   * @param input  the eojeols, usually from {@link KoreanTokenizer}
+   * @param analyzer  the analyzer, which may be shared by the filters of several threads
+   */
+  public KoreanFilter(TokenStream input, MorphAnalyzer analyzer) {
+    super(input);
+    this.analyzer = analyzer;
+  }
+
+  @Override
+  public boolean incrementToken() throws IOException {
+    if(parts!=null) {
+      if(partIndex<parts.size()) {
+        String part = parts.get(partIndex).getWord();
+        termAtt.setEmpty().append(part);
+        posIncAtt.setPositionIncrement(partIndex==0 ? 0 : 1);
+        posLenAtt.setPositionLength(1);
+        if(partOffset>=0) {
+          offsetAtt.setOffset(partOffset, partOffset+part.length());
+          partOffset += part.length();
+        }
+        partIndex++;
+        return true;
+      }
+      parts = null;
+    }
+
+    if(!input.incrementToken()) return false;
+    if(!KoreanTokenizer.TYPE_HANGUL.equals(typeAtt.type())) return true;
+
+    AnalysisOutput output;
+    try {
+      output = analyzer.analyzeBest(termAtt.toString());
+    } catch (MorphException e) {
+      throw new IOException(e);
+    }
+
+    String stem = output.getStem();
+    termAtt.setEmpty().append(stem);
+    if(output.getCNounList().size()>1) {
+      parts = output.getCNounList();
+      partIndex = 0;
+      partOffset = spells(parts, stem) && offsetAtt.endOffset()-offsetAtt.startOffset()>=stem.length()
+          ? offsetAtt.startOffset() : -1;
+      posLenAtt.setPositionLength(parts.size());
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if the parts put together are the stem.
+   */
+  private static boolean spells(List<CompoundEntry> parts, String stem) {
+    int pos = 0;
+    for(CompoundEntry part : parts) {
+      String word = part.getWord();
+      if(!stem.startsWith(word, pos)) return false;
+      pos += word.length();
+    }
+    return pos==stem.length();
+  }
+
+  @Override
+  public void reset() throws IOException {
+    super.reset();
+    parts = null;
+    partIndex = 0;
+  }
+}
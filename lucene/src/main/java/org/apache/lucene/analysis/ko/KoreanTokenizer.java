@@ -0,0 +1,99 @@
+package org.apache.lucene.analysis.ko;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import java.io.IOException;
+
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.ko.morph.EojeolReader;
+import org.apache.lucene.analysis.ko.morph.LanguageSpliter;
+import org.apache.lucene.analysis.ko.morph.StreamAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.apache.lucene.util.AttributeFactory;
+
+/**
+ * 문서를 어절 단위로 나눈다.
+ * <p>
+ *
+ * The eojeols are read by an {@link EojeolReader} like {@link StreamAnalyzer}, so
+ * an eojeol is a run of characters of the same type by {@link LanguageSpliter#typeOf(char)},
+ * other than symbols and white spaces. The characters are copied from the reader into
+ * the term buffer, so no object is allocated for a token. The hangul eojeols have the
+ * type {@link #TYPE_HANGUL}.
+ */
+public final class KoreanTokenizer extends Tokenizer {
+
+  public static final String TYPE_HANGUL = "<HANGUL>";
+
+  public static final String TYPE_NUM = "<NUM>";
+
+  public static final String TYPE_WORD = "<WORD>";
+
+  private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+  private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+
+  private final TypeAttribute typeAtt = addAttribute(TypeAttribute.class);
+
+  private final EojeolReader reader = new EojeolReader();
+
+  private int finalOffset;
+
+  public KoreanTokenizer() {
+  }
+
+  public KoreanTokenizer(AttributeFactory factory) {
+    super(factory);
+  }
+
+  @Override
+  public boolean incrementToken() throws IOException {
+    clearAttributes();
+
+    boolean found = reader.next();
+    finalOffset = correctOffset(reader.offset());
+    if(!found) return false;
+
+    termAtt.copyBuffer(reader.termBuffer(), 0, reader.termLength());
+    offsetAtt.setOffset(correctOffset(reader.startOffset()), correctOffset(reader.endOffset()));
+    if(reader.type()==LanguageSpliter.TYPE_HAN) typeAtt.setType(TYPE_HANGUL);
+    else if(reader.type()==LanguageSpliter.TYPE_NUM) typeAtt.setType(TYPE_NUM);
+    else typeAtt.setType(TYPE_WORD);
+    return true;
+  }
+
+  @Override
+  public void end() throws IOException {
+    super.end();
+    offsetAtt.setOffset(finalOffset, finalOffset);
+  }
+
+  @Override
+  public void reset() throws IOException {
+    super.reset();
+    reader.reset(input);
+    finalOffset = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    super.close();
+    reader.reset(null);
+  }
+}
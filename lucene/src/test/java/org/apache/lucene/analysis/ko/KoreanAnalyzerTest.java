@@ -0,0 +1,121 @@
+package org.apache.lucene.analysis.ko;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.ko.morph.MorphAnalyzer;
+import org.apache.lucene.analysis.ko.utils.UserDictionary;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionLengthAttribute;
+
+import junit.framework.TestCase;
+
+public class KoreanAnalyzerTest extends TestCase {
+
+	private List<String> tokens(Analyzer analyzer, String text) throws Exception {
+		List<String> tokens = new ArrayList<String>();
+		TokenStream stream = analyzer.tokenStream("f", text);
+		CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+		OffsetAttribute offsetAtt = stream.addAttribute(OffsetAttribute.class);
+		PositionIncrementAttribute posIncAtt = stream.addAttribute(PositionIncrementAttribute.class);
+		PositionLengthAttribute posLenAtt = stream.addAttribute(PositionLengthAttribute.class);
+		stream.reset();
+		while(stream.incrementToken()) {
+			tokens.add(termAtt+"/"+offsetAtt.startOffset()+"-"+offsetAtt.endOffset()+"/"+posIncAtt.getPositionIncrement()+"/"+posLenAtt.getPositionLength());
+		}
+		stream.end();
+		tokens.add("end/"+offsetAtt.endOffset());
+		stream.close();
+		return tokens;
+	}
+
+	public void testAnalyzer() throws Exception {
+		Analyzer analyzer = new KoreanAnalyzer();
+		String text = "정보검색시스템을 개발하였다. 학교에서 slab 2014";
+
+		String[] expected = {"정보검색시스템/0-8/1/3", "정보/0-2/0/1", "검색/2-4/1/1", "시스템/4-7/1/1", "개발/9-14/1/1",
+				"학교/16-20/1/1", "slab/21-25/1/1", "2014/26-30/1/1", "end/30"};
+		assertEquals(Arrays.asList(expected), tokens(analyzer, text));
+		assertEquals(Arrays.asList(expected), tokens(analyzer, text)); // reused components
+		analyzer.close();
+	}
+
+	public void testTypeChange() throws Exception {
+		Analyzer analyzer = new KoreanAnalyzer();
+
+		// the eojeols are split where the type of the characters changes
+		String[] expected = {"Lucene/0-6/1/1", "검색/6-8/1/1", "abc/9-12/1/1", "한글/12-14/1/1", "end/14"};
+		assertEquals(Arrays.asList(expected), tokens(analyzer, "Lucene검색 abc한글"));
+		analyzer.close();
+	}
+
+	public void testPartsNotSpellingStem() throws Exception {
+		MorphAnalyzer morphAnalyzer = new MorphAnalyzer();
+		morphAnalyzer.setUserDictionary(UserDictionary.read(Arrays.asList(
+				"아리랑학교:아리랑,학교", "아리랑고교:아리랑,고등학교")));
+		Analyzer analyzer = new KoreanAnalyzer(morphAnalyzer);
+
+		// the parts spell the noun, so they have their own offsets
+		String[] spelled = {"아리랑학교/0-6/1/2", "아리랑/0-3/0/1", "학교/3-5/1/1", "end/6"};
+		assertEquals(Arrays.asList(spelled), tokens(analyzer, "아리랑학교에"));
+
+		// otherwise all the parts have the offsets of the eojeol
+		String[] unspelled = {"아리랑고교/0-6/1/2", "아리랑/0-6/0/1", "고등학교/0-6/1/1", "end/6"};
+		assertEquals(Arrays.asList(unspelled), tokens(analyzer, "아리랑고교에"));
+		analyzer.close();
+	}
+
+	public void testConsecutiveCompounds() throws Exception {
+		Analyzer analyzer = new KoreanAnalyzer();
+		String text = "정보검색시스템 도서관어린이사서 학교";
+
+		String[] expected = {"정보검색시스템/0-7/1/3", "정보/0-2/0/1", "검색/2-4/1/1", "시스템/4-7/1/1",
+				"도서관어린이사서/8-16/1/3", "도서관/8-11/0/1", "어린이/11-14/1/1", "사서/14-16/1/1",
+				"학교/17-19/1/1", "end/19"};
+		List<String> tokens = tokens(analyzer, text);
+		assertEquals(Arrays.asList(expected), tokens);
+
+		// each whole noun ends where the next token starts
+		int[] positions = positions(tokens);
+		assertEquals(0, positions[0]);
+		assertEquals(positions[0]+3, positions[4]);
+		assertEquals(positions[4]+3, positions[8]);
+		analyzer.close();
+	}
+
+	public void testResetWhileEmittingParts() throws Exception {
+		Analyzer analyzer = new KoreanAnalyzer();
+		TokenStream stream = analyzer.tokenStream("f", "정보검색시스템을 개발");
+		CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+		stream.reset();
+		assertTrue(stream.incrementToken());
+		assertEquals("정보검색시스템", termAtt.toString());
+		assertTrue(stream.incrementToken());
+		assertEquals("정보", termAtt.toString());
+		stream.close();
+
+		// the parts left over are not emitted by the reused stream
+		String[] expected = {"학교/0-4/1/1", "end/4"};
+		assertEquals(Arrays.asList(expected), tokens(analyzer, "학교에서"));
+		analyzer.close();
+	}
+
+	/**
+	 * Returns the position of each token, the first one at 0.
+	 */
+	private int[] positions(List<String> tokens) {
+		int[] positions = new int[tokens.size()-1];
+		int pos = -1;
+		for(int i=0;i<positions.length;i++) {
+			String[] fields = tokens.get(i).split("/");
+			pos += Integer.parseInt(fields[2]);
+			positions[i] = pos;
+		}
+		return positions;
+	}
+}
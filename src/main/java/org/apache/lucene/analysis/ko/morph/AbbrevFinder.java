@@ -3,7 +3,7 @@ package org.apache.lucene.analysis.ko.morph;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.lucene.analysis.ko.utils.DictionaryUtil;
+import org.apache.lucene.analysis.ko.utils.Dictionary;
 
 /*
  * Licensed to the Apache Software Foundation (ASF) under one or more
@@ -25,8 +25,15 @@ import org.apache.lucene.analysis.ko.utils.DictionaryUtil;
 public class AbbrevFinder {
   
   public List<AnalysisOutput> find(String input) throws MorphException {
+	  return find(Dictionary.inUse(), input);
+  }
+  
+  /**
+   * Same as {@link #find(String)}, but reads the abbreviations of the given dictionary.
+   */
+  List<AnalysisOutput> find(Dictionary dic, String input) {
     
-	  String definitions = DictionaryUtil.getAbbrevMorph(input);
+	  String definitions = dic.getAbbreviation(input);
 	  if(definitions==null) return null;
 	  
 	  List<AnalysisOutput> outputs = buildAnalysisOutputs(input, definitions);
@@ -0,0 +1,251 @@
+package org.apache.lucene.analysis.ko.morph;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.analysis.ko.utils.Dictionary;
+
+/**
+ * 어절 단위의 분석결과 캐시.
+ * <p>
+ *
+ * A size bounded LRU cache of the results of {@link MorphAnalyzer#analyze(String, int)},
+ * keyed by the dictionary, the input, the position and the compound options of
+ * the analyzer, including the maximum number of probes to segment a compound noun,
+ * see {@link MorphAnalyzer#setMaxCompoundProbes(int)}. The dictionaries are compared by {@link Dictionary#equals(Object)},
+ * so the analyzers with different user dictionaries can share one cache without
+ * seeing the results of each other.
+ * The entries are spread over a fixed number of segments, each an access ordered
+ * {@link LinkedHashMap} guarded by its own lock, so that concurrent analyzers
+ * sharing one cache rarely wait on each other. The least recently used entry of
+ * a segment is evicted when the segment is full.
+ * <p>
+ *
+ * All the entries are dropped when the default dictionary is replaced by
+ * {@link Dictionary#reload()}.
+ * <p>
+ *
+ * Cached results are returned as unmodifiable lists which are shared by all the
+ * callers; the {@link AnalysisOutput}s in them must not be modified.
+ */
+public class AnalysisCache {
+
+  private static final int SEGMENTS = 16;
+
+  /** small caches are not split, so that they evict in exact LRU order */
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  private final Segment[] segments;
+
+  private final int maxSize;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * the dictionary which the cached results are analyzed with
+   */
+  private volatile Dictionary dictionary;
+
+  /**
+   * @param maxSize  the maximum number of cached eojeols
+   */
+  public AnalysisCache(int maxSize) {
+    if(maxSize<1) throw new IllegalArgumentException("maxSize must be positive: "+maxSize);
+    this.maxSize = maxSize;
+    int count = Math.max(1, Math.min(SEGMENTS, maxSize/MIN_SEGMENT_SIZE));
+    segments = new Segment[count];
+    for(int i=0;i<count;i++) {
+      // spread the remainder so that the capacities add up to maxSize
+      segments[i] = new Segment(maxSize/count + (i<maxSize%count ? 1 : 0));
+    }
+  }
+
+  /**
+   * Returns the cached results, or null if none.
+   * @param dic  the dictionary which the input is analyzed with
+   * @param maxCompoundProbes  the maximum number of probes of the analyzer, see {@link MorphAnalyzer#setMaxCompoundProbes(int)}
+   */
+  public List<AnalysisOutput> get(Dictionary dic, String input, int pos, boolean exactCompound,
+      boolean divisibleOne, int maxCompoundProbes) {
+    checkDictionary();
+    Key key = new Key(dic, input, pos, exactCompound, divisibleOne, maxCompoundProbes);
+    List<AnalysisOutput> results = segmentFor(key).get(key);
+    if(results==null) misses.incrementAndGet();
+    else hits.incrementAndGet();
+    return results;
+  }
+
+  /**
+   * Caches the results and returns the unmodifiable view which is cached.
+   */
+  public List<AnalysisOutput> put(Dictionary dic, String input, int pos, boolean exactCompound,
+      boolean divisibleOne, int maxCompoundProbes, List<AnalysisOutput> results) {
+    checkDictionary();
+    Key key = new Key(dic, input, pos, exactCompound, divisibleOne, maxCompoundProbes);
+    List<AnalysisOutput> view = Collections.unmodifiableList(results);
+    segmentFor(key).put(key, view);
+    return view;
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /**
+   * Returns hits/(hits+misses), or 0 when nothing has been looked up.
+   */
+  public double getHitRate() {
+    long h = hits.get();
+    long total = h + misses.get();
+    return total==0 ? 0 : (double)h/total;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the number of cached eojeols.
+   */
+  public int size() {
+    int size = 0;
+    for(Segment s : segments) size += s.size();
+    return size;
+  }
+
+  /**
+   * Removes all the entries. The counters are kept.
+   */
+  public void clear() {
+    for(Segment s : segments) s.clear();
+  }
+
+  /**
+   * Drops the entries if the default dictionary is not the one they are analyzed with.
+   */
+  private void checkDictionary() {
+    Dictionary dic = Dictionary.current();
+    if(dic==dictionary) return;
+    synchronized(this) {
+      if(dic!=dictionary) {
+        clear();
+        dictionary = dic;
+      }
+    }
+  }
+
+  private Segment segmentFor(Key key) {
+    int h = key.hashCode();
+    h ^= (h>>>16);
+    return segments[(h&0x7FFFFFFF)%segments.length];
+  }
+
+  private class Segment {
+
+    private final int capacity;
+
+    private final LinkedHashMap<Key, List<AnalysisOutput>> map;
+
+    Segment(int capacity) {
+      this.capacity = capacity;
+      this.map = new LinkedHashMap<Key, List<AnalysisOutput>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<Key, List<AnalysisOutput>> eldest) {
+          if(size()<=Segment.this.capacity) return false;
+          evictions.incrementAndGet();
+          return true;
+        }
+      };
+    }
+
+    synchronized List<AnalysisOutput> get(Key key) {
+      return map.get(key);
+    }
+
+    synchronized void put(Key key, List<AnalysisOutput> results) {
+      map.put(key, results);
+    }
+
+    synchronized int size() {
+      return map.size();
+    }
+
+    synchronized void clear() {
+      map.clear();
+    }
+  }
+
+  private static final class Key {
+
+    private final Dictionary dictionary;
+
+    private final String input;
+
+    private final int pos;
+
+    private final boolean exactCompound;
+
+    private final boolean divisibleOne;
+
+    private final int maxCompoundProbes;
+
+    private final int hash;
+
+    Key(Dictionary dictionary, String input, int pos, boolean exactCompound, boolean divisibleOne,
+        int maxCompoundProbes) {
+      this.dictionary = dictionary;
+      this.input = input;
+      this.pos = pos;
+      this.exactCompound = exactCompound;
+      this.divisibleOne = divisibleOne;
+      this.maxCompoundProbes = maxCompoundProbes;
+      this.hash = ((((dictionary.hashCode()*31 + input.hashCode())*31 + pos)*2
+          + (exactCompound ? 1 : 0))*2 + (divisibleOne ? 1 : 0))*31 + maxCompoundProbes;
+    }
+
+    public int hashCode() {
+      return hash;
+    }
+
+    public boolean equals(Object o) {
+      if(this==o) return true;
+      if(!(o instanceof Key)) return false;
+      Key k = (Key)o;
+      return hash==k.hash && pos==k.pos && exactCompound==k.exactCompound
+          && divisibleOne==k.divisibleOne && maxCompoundProbes==k.maxCompoundProbes && input.equals(k.input) && dictionary.equals(k.dictionary);
+    }
+  }
+}
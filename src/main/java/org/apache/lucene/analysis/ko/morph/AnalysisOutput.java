@@ -20,8 +20,19 @@ package org.apache.lucene.analysis.ko.morph;
 import org.apache.lucene.analysis.ko.utils.Utilities;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * 어절의 분석결과.
+ * <p>
+ *
+ * The lists of compound nouns, josas and eomis are allocated when the first
+ * element is added; until then the getters return an empty list which can not be
+ * modified. A clone shares the lists with the original, except that a list of
+ * compound nouns given by {@link #setCNoun(List)} is copied by the output which
+ * adds a compound noun to it.
+ */
 public class AnalysisOutput implements Cloneable {
 
   public static final int SCORE_CORRECT = 100;
@@ -34,16 +45,17 @@ public class AnalysisOutput implements Cloneable {
   private int score; // score of this result
   private int patn; // word pattern
   private char type; // type of input word
-  private List<CompoundEntry> compound = new ArrayList<CompoundEntry>(); // compound noun of input word
+  private List<CompoundEntry> compound; // compound noun of input word
+  private boolean compoundShared; // whether if compound is given by setCNoun, and copied on write
   private String stem;
   private char pos; // 3 simplified stem type
   private char pos2; // pos attr. for 'pos'
   private char dinf; // pos info. in Han-dic
   private String nsfx; // index of noun suffix
   private String josa; // josa string
-  private List<String> jlist = new ArrayList<String>(); // unit-josa sequence
+  private List<String> jlist; // unit-josa sequence
   private String eomi;  // Eomi string
-  private List<String> elist = new ArrayList<String>(); // unit-Eomi sequence
+  private List<String> elist; // unit-Eomi sequence
   private String pomi; // prefinal Eomi
   private String xverb; // Xverb string
   private String vsfx; // verb suffix
@@ -52,6 +64,8 @@ public class AnalysisOutput implements Cloneable {
   private int maxWordLen = 0; // the max length of words within compound nouns
   private int dicWordLen = 0; // the sum of the length of words within compound nouns
   
+  boolean pooled; // whether if this is free in an AnalysisOutputPool
+  
   public AnalysisOutput() {
     this.score = SCORE_FAIL;
   }
@@ -110,6 +124,7 @@ public class AnalysisOutput implements Cloneable {
   }
   
   public void addJlist(String l) {
+    if(jlist==null) jlist = new ArrayList<String>();
     this.jlist.add(l);
   }
   
@@ -118,11 +133,17 @@ public class AnalysisOutput implements Cloneable {
   }
   
   public void addElist(String l){
+    if(elist==null) elist = new ArrayList<String>();
     this.elist.add(l);
   }
+  
+  public void addElist(int index, String l){
+    if(elist==null) elist = new ArrayList<String>();
+    this.elist.add(index,l);
+  }
     
   public void setElist(String l, int index){
-    this.elist.set(index,l);
+    getElist().set(index,l);
   }
   
   public void setPomi(String s) {
@@ -167,12 +188,14 @@ public class AnalysisOutput implements Cloneable {
     return this.josa;
   }
   public List<String> getJlist() {
+    if(jlist==null) return Collections.emptyList();
     return this.jlist;
   }
   public String getEomi() {
     return this.eomi;
   }
   public List<String> getElist() {
+    if(elist==null) return Collections.emptyList();
     return this.elist;
   }
   public String getPomi(){
@@ -205,19 +228,35 @@ public class AnalysisOutput implements Cloneable {
   }
   
   public void addCNoun(CompoundEntry w) {
-    compound.add(w);
+    mutableCNoun().add(w);
   }
   
   public List<CompoundEntry> getCNounList() {
+    if(compound==null) return Collections.emptyList();
     return compound;
   }
   
+  /**
+   * Sets the compound nouns. The list is not modified, it is copied when a
+   * compound noun is added afterwards, so a list of the dictionary can be given.
+   */
   public void setCNoun(List<CompoundEntry> cnoun) {
     compound = cnoun;
+    compoundShared = cnoun!=null;
   }
   
   public void addCNoun(List<CompoundEntry> cnoun) {
-    compound.addAll(cnoun);
+    mutableCNoun().addAll(cnoun);
+  }
+  
+  private List<CompoundEntry> mutableCNoun() {
+    if(compound==null) {
+      compound = new ArrayList<CompoundEntry>();
+    } else if(compoundShared) {
+      compound = new ArrayList<CompoundEntry>(compound);
+    }
+    compoundShared = false;
+    return compound;
   }
   
   /**
@@ -234,8 +273,77 @@ public class AnalysisOutput implements Cloneable {
     this.source = source;
   }
   
+  /**
+   * Clears this output as if it were created by {@link #AnalysisOutput()}. The lists
+   * are dropped, not cleared, since they may be shared with clones.
+   */
+  public void reset() {
+    source = null;
+    score = SCORE_FAIL;
+    patn = 0;
+    type = 0;
+    compound = null;
+    compoundShared = false;
+    stem = null;
+    pos = 0;
+    pos2 = 0;
+    dinf = 0;
+    nsfx = null;
+    josa = null;
+    jlist = null;
+    eomi = null;
+    elist = null;
+    pomi = null;
+    xverb = null;
+    vsfx = null;
+    vtype = 0;
+    maxWordLen = 0;
+    dicWordLen = 0;
+  }
+  
+  /**
+   * Makes this output a copy of the other like {@link #clone()}, but only the lists
+   * which are allocated are shared. a list which is still null is allocated by
+   * the copy or the original apart, when the first element is added to it.
+   */
+  void copyFrom(AnalysisOutput o) {
+    source = o.source;
+    score = o.score;
+    patn = o.patn;
+    type = o.type;
+    compound = o.compound;
+    compoundShared = o.compoundShared;
+    stem = o.stem;
+    pos = o.pos;
+    pos2 = o.pos2;
+    dinf = o.dinf;
+    nsfx = o.nsfx;
+    josa = o.josa;
+    jlist = o.jlist;
+    eomi = o.eomi;
+    elist = o.elist;
+    pomi = o.pomi;
+    xverb = o.xverb;
+    vsfx = o.vsfx;
+    vtype = o.vtype;
+    maxWordLen = o.maxWordLen;
+    dicWordLen = o.dicWordLen;
+  }
+  
+  /**
+   * the lists are allocated before they are shared, so that the elements added
+   * to a clone are seen by the original and the other clones.
+   */
+  private void allocateLists() {
+    if(compound==null) compound = new ArrayList<CompoundEntry>();
+    if(jlist==null) jlist = new ArrayList<String>();
+    if(elist==null) elist = new ArrayList<String>();
+  }
+  
   public AnalysisOutput clone() throws CloneNotSupportedException {
+    allocateLists();
     AnalysisOutput output = (AnalysisOutput)super.clone();
+    output.pooled = false;
     output.setDinf(this.dinf);
     output.setEomi(this.eomi);
     output.setJosa(this.josa);
@@ -29,6 +29,17 @@ public class AnalysisOutputComparator<T> implements Comparator<T> {
 	  for(int i=0;i<terms.length;i++) termVerbPreferSet.add(terms[i]);
   }
   
+  /**
+   * returns true if the stem starts with a term which is ranked by the pattern before the
+   * length of the stem. a stem may be shortened to the term by decomposing it.
+   */
+  static boolean startsWithVerbPreferred(String stem) {
+    for(String term : termVerbPreferSet) {
+      if(stem.startsWith(term)) return true;
+    }
+    return false;
+  }
+  
   public int compare(T o1, T o2) {
     
     AnalysisOutput out1 = (AnalysisOutput)o1;
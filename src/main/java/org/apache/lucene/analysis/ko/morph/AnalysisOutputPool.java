@@ -0,0 +1,87 @@
+package org.apache.lucene.analysis.ko.morph;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/**
+ * 분석 후보의 재사용 pool.
+ * <p>
+ *
+ * Keeps the candidates which are discarded while an eojeol is analyzed, so that
+ * the next candidates reuse them instead of being allocated. A pool is not thread
+ * safe; {@link MorphAnalyzer} keeps one for each thread.
+ */
+final class AnalysisOutputPool {
+
+  private final AnalysisOutput[] free;
+
+  private int size;
+
+  /**
+   * @param capacity  the maximum number of free outputs which are kept
+   */
+  AnalysisOutputPool(int capacity) {
+    free = new AnalysisOutput[capacity];
+  }
+
+  /**
+   * Returns an output like {@link AnalysisOutput#AnalysisOutput(String, String, String, int)}.
+   */
+  AnalysisOutput get(String stem, String josa, String eomi, int patn) {
+    AnalysisOutput o = take();
+    o.setStem(stem);
+    o.setJosa(josa);
+    o.setEomi(eomi);
+    o.setPatn(patn);
+    o.setScore(AnalysisOutput.SCORE_ANALYSIS);
+    return o;
+  }
+
+  /**
+   * Returns a copy of the output like {@link AnalysisOutput#clone()}.
+   */
+  AnalysisOutput copyOf(AnalysisOutput o) {
+    AnalysisOutput copy = take();
+    copy.copyFrom(o);
+    return copy;
+  }
+
+  /**
+   * Returns the output to the pool. It must not be used any more by the caller,
+   * and must not be referenced by any result. An output which is already free is
+   * ignored.
+   */
+  void release(AnalysisOutput o) {
+    if(o.pooled || size==free.length) return;
+    o.reset();
+    o.pooled = true;
+    free[size++] = o;
+  }
+
+  private AnalysisOutput take() {
+    if(size==0) return new AnalysisOutput();
+    AnalysisOutput o = free[--size];
+    free[size] = null;
+    o.pooled = false;
+    return o;
+  }
+
+  int size() {
+    return size;
+  }
+}
@@ -17,51 +17,54 @@ package org.apache.lucene.analysis.ko.morph;
  * limitations under the License.
  */
 
+import java.util.Map;
+
 /**
  * 복합명사의 개별단어에 대한 정보를 담고있는 클래스 
+ * <p>
+ *
+ * An entry can not be modified, so the entries of the compound nouns in the
+ * dictionary are shared by the dictionary and all the analysis results. The
+ * dictionary keeps one instance of equal entries, see {@link #intern(Map)}.
  */
-public class CompoundEntry {
+public final class CompoundEntry {
   
-  private String word;
+  private final String word;
   
-  private int offset = -1;
+  private final int offset;
   
-  private boolean exist = true;
+  private final boolean exist;
   
   // this word is defined in the compound dictionary
-  private boolean compoundWord = false;
-  
-  private char pos = PatternConstants.POS_NOUN;
+  private final boolean compoundWord;
   
-  public CompoundEntry() {
-    
-  }
+  private final char pos;
   
   public CompoundEntry(String w) {
-    this.word = w;
+    this(w,-1);
   }
   
   public CompoundEntry(String w,int o) {
-    this(w);
-    this.offset = o;    
+    this(w,o,true);
   }
   
   public CompoundEntry(String w,int o, boolean is) {
-    this(w,o);
-    this.exist = is;    
+    this(w,o,is,PatternConstants.POS_NOUN);
   }
   
   public CompoundEntry(String w,int o, boolean is, char p) {
-    this(w,o,is);
-    this.pos = p;
+    this(w,o,is,p,false);
   }
   
-  public void setWord(String w) {
+  /**
+   * @param compoundDic  whether if this word is defined in the compound dictionary
+   */
+  public CompoundEntry(String w,int o, boolean is, char p, boolean compoundDic) {
     this.word = w;
-  }
-  
-  public void setOffset(int o) {
     this.offset = o;
+    this.exist = is;
+    this.pos = p;
+    this.compoundWord = compoundDic;
   }
   
   public String getWord() {
@@ -76,24 +79,38 @@ public class CompoundEntry {
     return exist;
   }
   
-  public void setExist(boolean is) {
-    this.exist = is;
-  }
-  
   public char getPos() {
     return pos;
   }
-
-  public void setPos(char pos) {
-    this.pos = pos;
-  }  
-  
-  public void setCompoundDic(boolean is) {
-	  this.compoundWord = is;
-  }
   
   public boolean isCompoundDic() {
 	  return this.compoundWord;
   }
   
+  /**
+   * Returns the entry in the map which is equal to this, or puts this into the map
+   * and returns this if there is none.
+   */
+  public CompoundEntry intern(Map<CompoundEntry, CompoundEntry> entries) {
+    CompoundEntry interned = entries.get(this);
+    if(interned!=null) return interned;
+    entries.put(this, this);
+    return this;
+  }
+  
+  public int hashCode() {
+    int h = word==null ? 0 : word.hashCode();
+    h = h*31 + offset;
+    h = h*31 + pos;
+    return h*4 + (exist ? 2 : 0) + (compoundWord ? 1 : 0);
+  }
+  
+  public boolean equals(Object o) {
+    if(this==o) return true;
+    if(!(o instanceof CompoundEntry)) return false;
+    CompoundEntry e = (CompoundEntry)o;
+    return offset==e.offset && exist==e.exist && compoundWord==e.compoundWord && pos==e.pos
+        && (word==null ? e.word==null : word.equals(e.word));
+  }
+  
 }
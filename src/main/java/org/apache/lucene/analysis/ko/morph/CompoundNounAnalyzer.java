@@ -19,16 +19,21 @@ package org.apache.lucene.analysis.ko.morph;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.lucene.analysis.ko.utils.Dictionary;
 import org.apache.lucene.analysis.ko.utils.DictionaryUtil;
 
 /**
  * 복합명사를 분해한다.
+ * <p>
+ *
+ * Compound nouns of 3 to 5 characters are split by fixed patterns in the order
+ * of preference. Longer ones are split by the best scored segmentation over their
+ * dictionary words, which are looked up once by one common prefix search from each
+ * position.
  */
 public class CompoundNounAnalyzer {
   
@@ -38,6 +43,18 @@ public class CompoundNounAnalyzer {
 
 	private LanguageSpliter langSpliter;
 
+	/**
+	 * the maximum number of dictionary probes to segment a long compound noun, 0 for no limit
+	 */
+	private int maxProbes = 0;
+
+	private final AtomicLong exceeded = new AtomicLong();
+
+	/**
+	 * 분해결과 캐시. null 이면 캐시하지 않는다.
+	 */
+	private CompoundNounCache cache;
+
 	public CompoundNounAnalyzer() {
 		langSpliter = new LanguageSpliter();
 	}
@@ -54,19 +71,84 @@ public class CompoundNounAnalyzer {
 		this.divisibleOne = is;
 	}
 
+	/**
+	 * set the maximum number of dictionary probes to segment a compound noun with
+	 * more than 5 characters. When it is exceeded, the compound noun is segmented
+	 * into the longest nouns from the front instead.
+	 * @param max the maximum number of probes, 0 for no limit
+	 */
+	public void setMaxProbes(int max) {
+		this.maxProbes = max;
+	}
+
+	public int getMaxProbes() {
+		return maxProbes;
+	}
+
+	/**
+	 * Returns the number of compound nouns which exceeded the maximum number of probes.
+	 */
+	public long getExceededCount() {
+		return exceeded.get();
+	}
+
+	/**
+	 * set the cache of the decompositions, which may be shared by several analyzers.
+	 * @param cache the cache, or null not to cache
+	 */
+	public void setCache(CompoundNounCache cache) {
+		this.cache = cache;
+	}
+
+	public CompoundNounCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * @return the decomposition, which must not be modified
+	 */
 	public List<CompoundEntry> analyze(String input) throws MorphException {
+		return analyzeCached(Dictionary.inUse(), input);
+	}
+
+	/**
+	 * Same as {@link #analyze(String)}, but looks the words up in the given dictionary,
+	 * which is passed down to every lookup, so that the analysis reads only this one
+	 * even if the default dictionary is replaced meanwhile.
+	 */
+	List<CompoundEntry> analyze(Dictionary dic, String input) throws MorphException {
+		return analyzeCached(dic, input);
+	}
 
-		WordEntry entry = DictionaryUtil.getAllNoun(input);
+	private List<CompoundEntry> analyzeCached(Dictionary dic, String input) throws MorphException {
+
+		WordEntry entry = input.length() == 0 ? null : DictionaryUtil.allNoun(dic.getWord(input));
 		if (entry != null && entry.getCompounds().size() > 0)
 			return entry.getCompounds();
 
-		List<CompoundEntry> outputs = analyzeCompoundNoun(input);
-		return outputs;
+		if (cache == null)
+			return analyzeCompoundNoun(dic, input);
+
+		Dictionary current = Dictionary.current();
+		List<CompoundEntry> outputs = cache.get(dic, input, exactMach, divisibleOne, maxProbes);
+		if (outputs != null)
+			return outputs;
+
+		outputs = analyzeCompoundNoun(dic, input);
+		// not cached if the default dictionary has been replaced during the analysis
+		if (Dictionary.current() != current)
+			return Collections.unmodifiableList(outputs);
+		return cache.put(dic, input, exactMach, divisibleOne, maxProbes, outputs);
 
 	}
   
 	public List<CompoundEntry> analyzeCompoundNoun(String input)
 			throws MorphException {
+		return analyzeCompoundNoun(Dictionary.inUse(), input);
+	}
+
+	private List<CompoundEntry> analyzeCompoundNoun(Dictionary dic, String input)
+			throws MorphException {
 
 		List<LangToken> tokenList = langSpliter.split(input);
 
@@ -80,7 +162,7 @@ public class CompoundNounAnalyzer {
 
 				outputs.add(new CompoundEntry(t.getTerm(), t.getOffset(), exist));
 			} else if (tokenList.size() > 1
-					&& (entry = DictionaryUtil.getAllNoun(t.getTerm())) != null) {
+					&& (entry = DictionaryUtil.allNoun(dic.getWord(t.getTerm()))) != null) {
 
 				if (entry.getCompounds().size() > 0)
 					outputs.addAll(entry.getCompounds());
@@ -89,7 +171,7 @@ public class CompoundNounAnalyzer {
 							true));
 
 			} else {
-				boolean success = analyze(t.getTerm(), outputs, true);
+				boolean success = analyze(dic, t.getTerm(), outputs, true);
 
 				if (!success)
 					outputs.add(new CompoundEntry(t.getTerm(), t.getOffset(),
@@ -104,42 +186,47 @@ public class CompoundNounAnalyzer {
     
 	public boolean analyze(String input, List<CompoundEntry> outputs,
 			boolean isFirst) throws MorphException {
+		return analyze(Dictionary.inUse(), input, outputs, isFirst);
+	}
+
+	private boolean analyze(Dictionary dic, String input, List<CompoundEntry> outputs,
+			boolean isFirst) throws MorphException {
 
 		int len = input.length();
 		boolean success = false;
 
 		switch (len) {
 		case 3:
-			success = analyze3Word(input, outputs, isFirst);
+			success = analyze3Word(dic, input, outputs, isFirst);
 			break;
 		case 4:
-			success = analyze4Word(input, outputs, isFirst);
+			success = analyze4Word(dic, input, outputs, isFirst);
 			break;
 		case 5:
-			success = analyze5Word(input, outputs, isFirst);
+			success = analyze5Word(dic, input, outputs, isFirst);
 			break;
 		default:
-			success = analyzeLongText(input, outputs, isFirst);
+			success = analyzeLongText(dic, input, outputs, isFirst);
 		}
 
 		return success;
 	}
 
-	private boolean analyze3Word(String input, List<CompoundEntry> outputs,
+	private boolean analyze3Word(Dictionary dic, String input, List<CompoundEntry> outputs,
 			boolean isFirst) throws MorphException {
 
 		if (!divisibleOne)
 			return false;
 
 		int[] units1 = { 2, 1 };
-		CompoundEntry[] entries1 = analysisBySplited(units1, input, isFirst);
+		CompoundEntry[] entries1 = analysisBySplited(dic, units1, input, isFirst);
 		if (entries1 != null && existAllWord(entries1)) {
 			outputs.addAll(Arrays.asList(entries1));
 			return true;
 		}
 
 		int[] units2 = { 1, 2 };
-		CompoundEntry[] entries2 = analysisBySplited(units2, input, isFirst);
+		CompoundEntry[] entries2 = analysisBySplited(dic, units2, input, isFirst);
 		if (entries2 != null && existAllWord(entries2)) {
 			outputs.addAll(Arrays.asList(entries2));
 			return true;
@@ -148,12 +235,12 @@ public class CompoundNounAnalyzer {
 		return false;
 	}
 
-	private boolean analyze4Word(String input, List<CompoundEntry> outputs,
+	private boolean analyze4Word(Dictionary dic, String input, List<CompoundEntry> outputs,
 			boolean isFirst) throws MorphException {
 
 		if (!isFirst && divisibleOne) {
 			int[] units0 = { 1, 3 };
-			CompoundEntry[] entries0 = analysisBySplited(units0, input, isFirst);
+			CompoundEntry[] entries0 = analysisBySplited(dic, units0, input, isFirst);
 			if (entries0 != null && existAllWord(entries0)) {
 				outputs.addAll(Arrays.asList(entries0));
 				return true;
@@ -161,7 +248,7 @@ public class CompoundNounAnalyzer {
 		}
 
 		int[] units1 = { 2, 2 };
-		CompoundEntry[] entries1 = analysisBySplited(units1, input, isFirst);
+		CompoundEntry[] entries1 = analysisBySplited(dic, units1, input, isFirst);
 		if (entries1 != null && existAllWord(entries1)) {
 			outputs.addAll(Arrays.asList(entries1));
 			return true;
@@ -169,14 +256,14 @@ public class CompoundNounAnalyzer {
 
 		if (divisibleOne) {
 			int[] units3 = { 3, 1 };
-			CompoundEntry[] entries3 = analysisBySplited(units3, input, isFirst);
+			CompoundEntry[] entries3 = analysisBySplited(dic, units3, input, isFirst);
 			if (entries3 != null && existAllWord(entries3)) {
 				outputs.addAll(Arrays.asList(entries3));
 				return true;
 			}
 
 			int[] units2 = { 1, 2, 1 };
-			CompoundEntry[] entries2 = analysisBySplited(units2, input, isFirst);
+			CompoundEntry[] entries2 = analysisBySplited(dic, units2, input, isFirst);
 			if (entries2 != null && existAllWord(entries2)) {
 				outputs.addAll(Arrays.asList(entries2));
 				return true;
@@ -191,18 +278,18 @@ public class CompoundNounAnalyzer {
 		return false;
 	}
 
-	private boolean analyze5Word(String input, List<CompoundEntry> outputs,
+	private boolean analyze5Word(Dictionary dic, String input, List<CompoundEntry> outputs,
 			boolean isFirst) throws MorphException {
 
 		int[] units1 = { 2, 3 };
-		CompoundEntry[] entries1 = analysisBySplited(units1, input, isFirst,true);
+		CompoundEntry[] entries1 = analysisBySplited(dic, units1, input, isFirst,true);
 		if (entries1 != null && existAllWord(entries1)) {
 			outputs.addAll(Arrays.asList(entries1));
 			return true;
 		}
 
 		int[] units2 = { 3, 2 };
-		CompoundEntry[] entries2 = analysisBySplited(units2, input, isFirst,true);
+		CompoundEntry[] entries2 = analysisBySplited(dic, units2, input, isFirst,true);
 		if (entries2 != null && existAllWord(entries2)) {
 			outputs.addAll(Arrays.asList(entries2));
 			return true;
@@ -214,21 +301,21 @@ public class CompoundNounAnalyzer {
 
 		if (divisibleOne) {
 			int[] units_1 = { 4, 1 };
-			entries_1 = analysisBySplited(units_1, input, isFirst);
+			entries_1 = analysisBySplited(dic, units_1, input, isFirst);
 			if (entries_1 != null && existAllWord(entries_1)) {
 				outputs.addAll(Arrays.asList(entries_1));
 				return true;
 			}
 
 			int[] units3 = { 2, 2, 1 };
-			entries3 = analysisBySplited(units3, input, isFirst);
+			entries3 = analysisBySplited(dic, units3, input, isFirst);
 			if (entries3 != null && existAllWord(entries3)) {
 				outputs.addAll(Arrays.asList(entries3));
 				return true;
 			}
 
 			int[] units4 = { 2, 1, 2 };
-			entries4 = analysisBySplited(units4, input, isFirst);
+			entries4 = analysisBySplited(dic, units4, input, isFirst);
 			if (entries4 != null && existAllWord(entries4)) {
 				outputs.addAll(Arrays.asList(entries4));
 				return true;
@@ -287,22 +374,23 @@ public class CompoundNounAnalyzer {
 	 * @return
 	 * @throws MorphException
 	 */
-	private boolean analyzeLongText(String input, List<CompoundEntry> outputs,
+	private boolean analyzeLongText(Dictionary dic, String input, List<CompoundEntry> outputs,
 			boolean isFirst) throws MorphException {
 
-		// list of the word which start from a specific position.
-		List<TreeMap<Integer, String>> wordlist = new ArrayList<TreeMap<Integer, String>>();
+		if (input.length() < 1)
+			return false;
 
-		for (int i = 0; i < input.length(); i++) {
-			TreeMap<Integer, String> words = findWords(i, input);
-			wordlist.add(words);
-		}
+		WorkBudget budget = new WorkBudget(maxProbes);
 
-		if (wordlist.size() < 1)
-			return false;
+		// the words which start from each position.
+		Words words = new Words(dic, input, budget);
 
-		Map<Integer, List<String>> posMap = new HashMap<Integer, List<String>>();
-		List<String> entries = getBestCandidate(0, input, wordlist, posMap);
+		List<String> entries = budget.isExceeded() ? null
+				: getBestCandidate(input, words, budget);
+		if (budget.isExceeded()) {
+			exceeded.incrementAndGet();
+			return analyzeLongestMatch(dic, input, outputs);
+		}
 		mergConsecutiveOneWord(entries);
 
 		// 복합명사로 될 수 없는 조건인지 검사한다.
@@ -315,14 +403,14 @@ public class CompoundNounAnalyzer {
 			}
 		}
 		if(entryLen>1 &&
-				!validCompound(entries.get(entryLen-2), entries.get(entryLen-1), entryLen==2, true, pos)) {
+				!validCompound(dic, entries.get(entryLen-2), entries.get(entryLen-1), entryLen==2, true, pos)) {
 			return false;
 		}
 		
 		int offset = 0;
 		for (String entry : entries) {
 			
-			WordEntry word = DictionaryUtil.getAllNoun(entry);
+			WordEntry word = DictionaryUtil.allNoun(words.find(offset, entry.length()));
 			
 			if (word != null) {
 				List<CompoundEntry> list = word.getCompounds();
@@ -344,6 +432,53 @@ public class CompoundNounAnalyzer {
 		return outputs.size() > 0;
 	}
 
+	/**
+	 * segment the compound noun into the longest nouns from the front,
+	 * when the budget of {@link #analyzeLongText} is exceeded.
+	 */
+	private boolean analyzeLongestMatch(Dictionary dic, String input, List<CompoundEntry> outputs)
+			throws MorphException {
+
+		List<CompoundEntry> entries = new ArrayList<CompoundEntry>();
+		int unknown = 0;
+
+		List<WordEntry> found = new ArrayList<WordEntry>(4);
+		for (int i = 0; i < input.length();) {
+			int length = 0;
+			found.clear();
+			dic.commonPrefixSearch(input, i, input.length(), found);
+			for (WordEntry entry : found) {
+				if (entry.getWord().length() > 1 && DictionaryUtil.allNoun(entry) != null)
+					length = entry.getWord().length();
+			}
+			if (length == 0) {
+				i++;
+				continue;
+			}
+
+			if (unknown < i) {
+				if (exactMach)
+					return false;
+				entries.add(new CompoundEntry(input.substring(unknown, i), unknown, false,
+						PatternConstants.POS_NOUN));
+			}
+			entries.add(new CompoundEntry(input.substring(i, i + length), i, true,
+					PatternConstants.POS_NOUN));
+			i += length;
+			unknown = i;
+		}
+
+		if (unknown < input.length()) {
+			if (exactMach)
+				return false;
+			entries.add(new CompoundEntry(input.substring(unknown), unknown, false,
+					PatternConstants.POS_NOUN));
+		}
+
+		outputs.addAll(entries);
+		return entries.size() > 0;
+	}
+
 	/**
 	 * merge the words with one characters which is present consecutively
 	 * 
@@ -370,153 +505,107 @@ public class CompoundNounAnalyzer {
 
 	}
 
-	private List<String> getBestCandidate(int pos, String input,
-			List<TreeMap<Integer, String>> wordlist,
-			Map<Integer, List<String>> posMap) throws MorphException {
-
-		if (wordlist.size() <= pos)
-			return null;
-		if (posMap.get(pos) != null)
-			return posMap.get(pos);
-
-		List<String> results = new ArrayList<String>();
-
-		TreeMap<Integer, String> candidates = wordlist.get(pos);
-		Iterator<Integer> indexes = candidates.descendingKeySet().iterator();
-
-		int score = 0;
-		List<String> bestcandidate = null;
-		String bestterm = null;
-
-		while (indexes.hasNext()) {
-			Integer index = indexes.next();
-			String term = candidates.get(index);
+	/**
+	 * Finds the best segmentation by dynamic programming from the end of the input.
+	 * The candidates at each position are the term with one character and the nouns,
+	 * tried from the longest. A term with one character scores 1 if it is a noun,
+	 * a longer one 2 for each character. The segmentation with the highest score wins,
+	 * and among the equal ones the one preferred by {@link #isBetterCompound}.
+	 * One unit of the budget is spent for each candidate.
+	 * @return the terms of the best segmentation, or null if the budget is exceeded
+	 */
+	private List<String> getBestCandidate(String input, Words words,
+			WorkBudget budget) {
 
-			int tempscore = 0;
-			
-			if(term.length() == 1) {
-				if(DictionaryUtil.getNoun(term)!=null) 
-					tempscore = 1;
-			} else {
-				tempscore = term.length()*2;
-			}
-			
-			List<String> terms = null;
+		int len = input.length();
 
-			if (pos + term.length() < input.length()) {
-				terms = getBestCandidate(pos + term.length(), input, wordlist,
-						posMap);
-				tempscore += getScore(terms);
+		// the best segmentation of the suffix from each position
+		int[] scores = new int[len + 1];
+		int[] firstLengths = new int[len + 1];
+		int[] lastLengths = new int[len + 1];
+		int[] counts = new int[len + 1];
+		boolean[] consecutiveOnes = new boolean[len + 1];
+
+		for (int pos = len - 1; pos >= 0; pos--) {
+
+			int score = 0;
+			int bestLength = 0;
+
+			for (int i = words.count(pos); i >= 0; i--) {
+				int length = 1;
+				if (i > 0) {
+					WordEntry entry = words.get(pos, i - 1);
+					length = entry.getWord().length();
+					if (length == 1 || DictionaryUtil.allNoun(entry) == null)
+						continue;
+				}
+				if (!budget.spend(1))
+					return null;
+
+				int tempscore = length == 1 ? (isNoun(words, pos) ? 1 : 0) : length * 2;
+				if (pos + length < len)
+					tempscore += scores[pos + length];
+
+				if (bestLength == 0 || score < tempscore
+						|| isBetterCompound(score, tempscore, pos + length, pos + bestLength,
+								len, counts, lastLengths, consecutiveOnes)) {
+					bestLength = length;
+					score = tempscore;
+				}
 			}
 
-			if (bestterm == null || 
-					score < tempscore || 
-					isBetterCompound(score,tempscore,terms, bestcandidate, term, bestterm)) 
-			{
-				bestcandidate = terms;
-				bestterm = term;
-				score = tempscore;
+			int next = pos + bestLength;
+			scores[pos] = score;
+			firstLengths[pos] = bestLength;
+			if (next < len) {
+				counts[pos] = counts[next] + 1;
+				lastLengths[pos] = lastLengths[next];
+				consecutiveOnes[pos] = consecutiveOnes[next]
+						|| (bestLength == 1 && firstLengths[next] == 1);
+			} else {
+				counts[pos] = 1;
+				lastLengths[pos] = bestLength;
 			}
 		}
 
-		if (bestterm != null)
-			results.add(bestterm);
-		
-		if (bestcandidate != null)
-			results.addAll(bestcandidate);
-		
-		posMap.put(pos, results);
-
+		List<String> results = new ArrayList<String>(counts[0]);
+		for (int pos = 0; pos < len; pos += firstLengths[pos]) {
+			results.add(input.substring(pos, pos + firstLengths[pos]));
+		}
 		return results;
 	}
 
-	private boolean isBetterCompound(int score, int thisScore, List<String> terms, List<String> bestcandidate, String thisTerm, String bestTerm) {
-		if(score != thisScore || bestcandidate==null || terms==null) return false;
+	/**
+	 * Compares the segmentations of two suffixes, which follow the terms with the same score.
+	 * @param suffix  the start of the suffix of this candidate
+	 * @param bestSuffix  the start of the suffix of the best candidate
+	 */
+	private boolean isBetterCompound(int score, int thisScore, int suffix, int bestSuffix, int len,
+			int[] counts, int[] lastLengths, boolean[] consecutiveOnes) {
+		if(score != thisScore || bestSuffix>=len || suffix>=len) return false;
 		
 		// (정보,법,학회) / The larger length of the first word, the better
-		if( terms.size()==1 && terms.get(terms.size() - 1).length() > bestcandidate
-				.get(bestcandidate.size() - 1).length())
+		if(counts[suffix]==1 && lastLengths[suffix] > lastLengths[bestSuffix])
 			return true;
 		
-		if(terms.size()<bestcandidate.size())
+		if(counts[suffix]<counts[bestSuffix])
 			return true;
 		
-		return !hasConsecutiveOneWord(terms);
-	}
-	/**
-	 * 연속적으로 한글자 단어가 있는지 조사한다.
-	 * @param terms
-	 * @return
-	 */
-	private boolean hasConsecutiveOneWord(List<String> terms) {
-		int prevLength = 0;
-		for(String term : terms) {
-			if(prevLength==1 && term.length()==1)
-				return true;
-			prevLength = term.length();
-		}
-		return false;
+		// 연속적으로 한글자 단어가 있는지 조사한다.
+		return !consecutiveOnes[suffix];
 	}
-	
-	private int getScore(List<String> terms) throws MorphException {
-		int score = 0;
 
-		for (String term : terms) {
-			if(term.length() == 1) {
-				if(DictionaryUtil.getNoun(term)!=null) 
-					score += 1;
-			} else {
-				score += term.length()*2;
-			}
-		}
-		
-		return score;
+	private static boolean isNoun(Words words, int pos) {
+		WordEntry entry = words.find(pos, 1);
+		return entry != null && entry.isNoun();
 	}
 
-	/**
-	 * find the word with max length which start at the start position and then
-	 * return the length of the word.
-	 * 
-	 * @param start
-	 *            the start position
-	 * @param input
-	 *            the compound noun which should be segmented.
-	 * @return the length of the word with the found word.
-	 * @throws MorphException
-	 *             throw exception
-	 */
-	private TreeMap<Integer, String> findWords(int start, String input)
-			throws MorphException {
-
-		TreeMap<Integer, String> wordMap = new TreeMap<Integer, String>();
-
-		// every term with one character is a candidate.
-		wordMap.put(1, input.substring(start, start + 1));
-
-		for (int i = (start + 2); i <= input.length(); i++) {
-			String text = input.substring(start, i);
-
-			Iterator<WordEntry> iter = DictionaryUtil.findWithPrefix(text);
-			if (iter == null || !iter.hasNext())
-				break;
-
-			WordEntry entry = DictionaryUtil.getAllNoun(text);
-			if (entry != null) {
-				wordMap.put(text.length(), text);
-
-			}
-
-		}
-
-		return wordMap;
-	}
-
-	private CompoundEntry[] analysisBySplited(int[] units, String input,
+	private CompoundEntry[] analysisBySplited(Dictionary dic, int[] units, String input,
 			boolean isFirst) throws MorphException {
-		return analysisBySplited(units, input, isFirst, true);
+		return analysisBySplited(dic, units, input, isFirst, true);
 	}
 	
-	private CompoundEntry[] analysisBySplited(int[] units, String input,
+	private CompoundEntry[] analysisBySplited(Dictionary dic, int[] units, String input,
 			boolean isFirst, boolean isLast) throws MorphException {
 
 		List<CompoundEntry> entries = new ArrayList<CompoundEntry>();
@@ -529,10 +618,10 @@ public class CompoundNounAnalyzer {
 
 			String str = input.substring(pos, pos + units[i]);
 
-			if (i != 0 && !validCompound(prev, str, isFirst && (i == 1), isLast && (i==lastPos), i))
+			if (i != 0 && !validCompound(dic, prev, str, isFirst && (i == 1), isLast && (i==lastPos), i))
 				return null;
 
-			analyzeSingle(str, entries); // CompoundEntry 로 변환
+			analyzeSingle(dic, str, entries); // CompoundEntry 로 변환
 
 			pos += units[i];
 			prev = str;
@@ -550,7 +639,7 @@ public class CompoundNounAnalyzer {
 	 * @throws MorphException
 	 *             exception
 	 */
-	private void analyzeSingle(String input, List<CompoundEntry> entries)
+	private void analyzeSingle(Dictionary dic, String input, List<CompoundEntry> entries)
 			throws MorphException {
 
 		int score = AnalysisOutput.SCORE_ANALYSIS;
@@ -561,17 +650,16 @@ public class CompoundNounAnalyzer {
 			return;
 		}
 
-		WordEntry entry = DictionaryUtil.getWordExceptVerb(input);
+		WordEntry entry = DictionaryUtil.exceptVerb(dic.getWord(input));
 		if (entry != null) {
 			score = AnalysisOutput.SCORE_CORRECT;
-			if (entry.getFeature(WordEntry.IDX_NOUN) != '1'
-					&& entry.getFeature(WordEntry.IDX_NOUN) != '2') {
+			if (!entry.hasAny(WordEntry.ALL_NOUN)) {
 				// ptn = PatternConstants.PTN_AID;
 				pos = PatternConstants.POS_AID;
 			}
 		}
 
-		if (entry != null && entry.getFeature(WordEntry.IDX_NOUN) == '2') {
+		if (entry != null && entry.isCompoundNoun()) {
 			entries.addAll(entry.getCompounds());
 		} else {
 			entries.add(new CompoundEntry(input, 0,
@@ -580,20 +668,20 @@ public class CompoundNounAnalyzer {
 
 	}
 
-	private boolean validCompound(String before, String after, boolean isFirst, boolean isLast,
+	private boolean validCompound(Dictionary dic, String before, String after, boolean isFirst, boolean isLast,
 			int pos) throws MorphException {
 
 		if (pos == 1 && before.length() == 1
-				&& (!isFirst || !DictionaryUtil.existPrefix(before)))
+				&& (!isFirst || !dic.existPrefix(before)))
 			return false;
 
 		if (after.length() == 1 && isLast
-				&& !DictionaryUtil.existSuffix(after))
+				&& !dic.existSuffix(after))
 			return false;
 
 		if (pos != 1 && before.length() == 1) {
 
-			WordEntry entry1 = DictionaryUtil.getUncompound(before + after);
+			WordEntry entry1 = dic.getUncompound(before + after);
 			if (entry1 != null) {
 				List<CompoundEntry> compounds = entry1.getCompounds();
 				if (before.equals(compounds.get(0).getWord())
@@ -603,7 +691,7 @@ public class CompoundNounAnalyzer {
 
 		}
 
-		WordEntry entry2 = after.length() == 1 ? null : DictionaryUtil
+		WordEntry entry2 = after.length() == 1 ? null : dic
 				.getUncompound(after);
 		if (entry2 != null) {
 			List<CompoundEntry> compounds = entry2.getCompounds();
@@ -614,4 +702,57 @@ public class CompoundNounAnalyzer {
 
 		return true;
 	}
+
+	/**
+	 * The dictionary words of a compound noun, found by one common prefix search
+	 * from each position and kept in one list.
+	 */
+	private static class Words {
+
+		private final List<WordEntry> entries = new ArrayList<WordEntry>();
+
+		// the words starting at i are entries[starts[i]..starts[i+1])
+		private final int[] starts;
+
+		/**
+		 * Searches the dictionary from each position until the budget is exceeded,
+		 * one unit for each position.
+		 */
+		Words(Dictionary dic, String input, WorkBudget budget) {
+			starts = new int[input.length() + 1];
+			for (int i = 0; i < input.length(); i++) {
+				if (!budget.spend(1))
+					break;
+				dic.commonPrefixSearch(input, i, input.length(), entries);
+				starts[i + 1] = entries.size();
+			}
+		}
+
+		/**
+		 * Returns the number of the words starting at the position.
+		 */
+		int count(int start) {
+			return starts[start + 1] - starts[start];
+		}
+
+		/**
+		 * Returns the k-th shortest word starting at the position.
+		 */
+		WordEntry get(int start, int k) {
+			return entries.get(starts[start] + k);
+		}
+
+		/**
+		 * Returns the word with the length at the position, or null if it is not in
+		 * the dictionary. The same as {@link DictionaryUtil#getWord(String)} of the word.
+		 */
+		WordEntry find(int start, int length) {
+			for (int i = starts[start]; i < starts[start + 1]; i++) {
+				WordEntry entry = entries.get(i);
+				if (entry.getWord().length() == length)
+					return entry;
+			}
+			return null;
+		}
+	}
 }
@@ -0,0 +1,243 @@
+package org.apache.lucene.analysis.ko.morph;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.analysis.ko.utils.Dictionary;
+
+/**
+ * 복합명사 분해결과 캐시.
+ * <p>
+ *
+ * A size bounded LRU cache of the results of {@link CompoundNounAnalyzer#analyze(String)},
+ * keyed by the dictionary, the compound noun and the options of the analyzer like
+ * {@link AnalysisCache}, including the maximum number of probes, since a compound noun
+ * which exceeds it is segmented differently. It is kept apart from
+ * {@link AnalysisCache}, because one compound noun is analyzed in many eojeols with
+ * different josas and eomis. The entries are spread over segments like in
+ * {@link AnalysisCache}, so that it can be shared by concurrent analyzers.
+ * <p>
+ *
+ * All the entries are dropped when the default dictionary is replaced by
+ * {@link Dictionary#reload()}.
+ * <p>
+ *
+ * Cached results are returned as unmodifiable lists which are shared by all the
+ * callers; the {@link CompoundEntry}s in them must not be modified.
+ */
+public class CompoundNounCache {
+
+  private static final int SEGMENTS = 16;
+
+  /** small caches are not split, so that they evict in exact LRU order */
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  private final Segment[] segments;
+
+  private final int maxSize;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * the dictionary which the cached entries are analyzed with
+   */
+  private volatile Dictionary dictionary;
+
+  /**
+   * @param maxSize  the maximum number of cached compound nouns
+   */
+  public CompoundNounCache(int maxSize) {
+    if(maxSize<1) throw new IllegalArgumentException("maxSize must be positive: "+maxSize);
+    this.maxSize = maxSize;
+    int count = Math.max(1, Math.min(SEGMENTS, maxSize/MIN_SEGMENT_SIZE));
+    segments = new Segment[count];
+    for(int i=0;i<count;i++) {
+      segments[i] = new Segment(maxSize/count + (i<maxSize%count ? 1 : 0));
+    }
+  }
+
+  /**
+   * Returns the cached decomposition, or null if none.
+   * @param dic  the dictionary which the input is analyzed with
+   * @param maxProbes  the maximum number of probes of the analyzer, see {@link CompoundNounAnalyzer#setMaxProbes(int)}
+   */
+  public List<CompoundEntry> get(Dictionary dic, String input, boolean exactMach, boolean divisibleOne,
+      int maxProbes) {
+    checkDictionary();
+    Key key = new Key(dic, input, exactMach, divisibleOne, maxProbes);
+    List<CompoundEntry> entries = segmentFor(key).get(key);
+    if(entries==null) misses.incrementAndGet();
+    else hits.incrementAndGet();
+    return entries;
+  }
+
+  /**
+   * Caches the decomposition and returns the unmodifiable view which is cached.
+   */
+  public List<CompoundEntry> put(Dictionary dic, String input, boolean exactMach, boolean divisibleOne,
+      int maxProbes, List<CompoundEntry> entries) {
+    checkDictionary();
+    Key key = new Key(dic, input, exactMach, divisibleOne, maxProbes);
+    List<CompoundEntry> view = Collections.unmodifiableList(entries);
+    segmentFor(key).put(key, view);
+    return view;
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /**
+   * Returns hits/(hits+misses), or 0 when nothing has been looked up.
+   */
+  public double getHitRate() {
+    long h = hits.get();
+    long total = h + misses.get();
+    return total==0 ? 0 : (double)h/total;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the number of cached compound nouns.
+   */
+  public int size() {
+    int size = 0;
+    for(Segment s : segments) size += s.size();
+    return size;
+  }
+
+  /**
+   * Removes all the entries. The counters are kept.
+   */
+  public void clear() {
+    for(Segment s : segments) s.clear();
+  }
+
+  /**
+   * Drops the entries if the default dictionary is not the one they are analyzed with.
+   */
+  private void checkDictionary() {
+    Dictionary dic = Dictionary.current();
+    if(dic==dictionary) return;
+    synchronized(this) {
+      if(dic!=dictionary) {
+        clear();
+        dictionary = dic;
+      }
+    }
+  }
+
+  private Segment segmentFor(Key key) {
+    int h = key.hashCode();
+    h ^= (h>>>16);
+    return segments[(h&0x7FFFFFFF)%segments.length];
+  }
+
+  private class Segment {
+
+    private final int capacity;
+
+    private final LinkedHashMap<Key, List<CompoundEntry>> map;
+
+    Segment(int capacity) {
+      this.capacity = capacity;
+      this.map = new LinkedHashMap<Key, List<CompoundEntry>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<Key, List<CompoundEntry>> eldest) {
+          if(size()<=Segment.this.capacity) return false;
+          evictions.incrementAndGet();
+          return true;
+        }
+      };
+    }
+
+    synchronized List<CompoundEntry> get(Key key) {
+      return map.get(key);
+    }
+
+    synchronized void put(Key key, List<CompoundEntry> entries) {
+      map.put(key, entries);
+    }
+
+    synchronized int size() {
+      return map.size();
+    }
+
+    synchronized void clear() {
+      map.clear();
+    }
+  }
+
+  private static final class Key {
+
+    private final Dictionary dictionary;
+
+    private final String input;
+
+    private final boolean exactMach;
+
+    private final boolean divisibleOne;
+
+    private final int maxProbes;
+
+    private final int hash;
+
+    Key(Dictionary dictionary, String input, boolean exactMach, boolean divisibleOne, int maxProbes) {
+      this.dictionary = dictionary;
+      this.input = input;
+      this.exactMach = exactMach;
+      this.divisibleOne = divisibleOne;
+      this.maxProbes = maxProbes;
+      this.hash = (((dictionary.hashCode()*31 + input.hashCode())*2 + (exactMach ? 1 : 0))*2
+          + (divisibleOne ? 1 : 0))*31 + maxProbes;
+    }
+
+    public int hashCode() {
+      return hash;
+    }
+
+    public boolean equals(Object o) {
+      if(this==o) return true;
+      if(!(o instanceof Key)) return false;
+      Key k = (Key)o;
+      return hash==k.hash && exactMach==k.exactMach && divisibleOne==k.divisibleOne
+          && maxProbes==k.maxProbes && input.equals(k.input) && dictionary.equals(k.dictionary);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package org.apache.lucene.analysis.ko.morph;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 문서를 어절 단위로 읽는다.
+ * <p>
+ *
+ * An eojeol is a run of characters of the same type by {@link LanguageSpliter#typeOf(char)},
+ * other than symbols and white spaces, so the text is split where the type changes like
+ * {@link LanguageSpliter#split(String)}; a run longer than {@link #MAX_TOKEN_LENGTH} is
+ * split too. The text is read through a fixed size buffer and the characters of an eojeol
+ * are kept in a reused term buffer, so nothing is allocated for an eojeol.
+ * This is shared by {@link StreamAnalyzer} and the Lucene tokenizer.
+ * <pre>
+ *   EojeolReader reader = new EojeolReader();
+ *   reader.reset(input);
+ *   while(reader.next()) {
+ *     ... reader.termBuffer(), reader.termLength(), reader.startOffset(), reader.type()
+ *   }
+ * </pre>
+ * A reader must not be used by several threads at the same time.
+ */
+public class EojeolReader {
+
+  public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+  public static final int MAX_TOKEN_LENGTH = 255;
+
+  private final char[] buffer;
+
+  private final char[] term = new char[MAX_TOKEN_LENGTH];
+
+  private Reader input;
+
+  private int bufferLength;
+
+  private int bufferPos;
+
+  /**
+   * the offset of buffer[0] in the input
+   */
+  private int bufferOffset;
+
+  private int termLength;
+
+  private int start;
+
+  private char type;
+
+  public EojeolReader() {
+    this(DEFAULT_BUFFER_SIZE);
+  }
+
+  public EojeolReader(int bufferSize) {
+    if(bufferSize<1) throw new IllegalArgumentException("bufferSize must be positive: "+bufferSize);
+    this.buffer = new char[bufferSize];
+  }
+
+  /**
+   * starts to read the input. the input is not closed by the reader.
+   */
+  public void reset(Reader input) {
+    this.input = input;
+    bufferLength = 0;
+    bufferPos = 0;
+    bufferOffset = 0;
+    termLength = 0;
+    start = 0;
+    type = 0;
+  }
+
+  /**
+   * Reads the next eojeol.
+   * @return false at the end of the input
+   */
+  public boolean next() throws IOException {
+    termLength = 0;
+    if(input==null) return false;
+
+    while(true) {
+      if(bufferPos==bufferLength) {
+        bufferOffset += bufferLength;
+        bufferLength = input.read(buffer);
+        bufferPos = 0;
+        if(bufferLength<=0) {
+          bufferLength = 0;
+          input = null;
+          break;
+        }
+      }
+
+      char c = buffer[bufferPos];
+      char t = LanguageSpliter.typeOf(c);
+      if(t==LanguageSpliter.TYPE_SYMBOL) {
+        bufferPos++;
+        if(termLength>0) break;
+        continue;
+      }
+
+      if(termLength==0) {
+        start = bufferOffset+bufferPos;
+        type = t;
+      } else if(t!=type || termLength==MAX_TOKEN_LENGTH) {
+        break; // the rest is the next eojeol
+      }
+      term[termLength++] = c;
+      bufferPos++;
+    }
+
+    return termLength>0;
+  }
+
+  /**
+   * Returns the characters of the eojeol, which are overwritten by the next one.
+   */
+  public char[] termBuffer() {
+    return term;
+  }
+
+  public int termLength() {
+    return termLength;
+  }
+
+  /**
+   * Returns the offset of the eojeol in the input.
+   */
+  public int startOffset() {
+    return start;
+  }
+
+  public int endOffset() {
+    return start+termLength;
+  }
+
+  /**
+   * Returns the type of the eojeol by {@link LanguageSpliter#typeOf(char)}.
+   */
+  public char type() {
+    return type;
+  }
+
+  /**
+   * Returns the offset in the input of the characters read so far.
+   */
+  public int offset() {
+    return bufferOffset+bufferPos;
+  }
+}
@@ -28,17 +28,7 @@ public class LanguageSpliter {
 		for(int i=0; i<input.length(); i++) {
 			char c = input.charAt(i);
 			
-			char type;
-			if(MorphUtil.isHanSyllable(c))
-				type = TYPE_HAN;
-			else if(Character.isDigit(c))
-				type = TYPE_NUM;
-			else if(c>'a' && c<'Z')
-				type = TYPE_ENG;
-			else if(Character.isLetter(c))
-				type = TYPE_CJ;
-			else 
-				type = TYPE_SYMBOL;
+			char type = typeOf(c);
 			
 			if(sb.length()>0 && type!=preType) {
 				results.add(new LangToken(sb.toString(), offset, preType));
@@ -56,6 +46,22 @@ public class LanguageSpliter {
 		
 		return results;
 	}
+	
+	/**
+	 * Returns the type of the character, one of TYPE_HAN, TYPE_NUM, TYPE_ENG, TYPE_CJ and TYPE_SYMBOL.
+	 */
+	public static char typeOf(char c) {
+		if(MorphUtil.isHanSyllable(c))
+			return TYPE_HAN;
+		else if(Character.isDigit(c))
+			return TYPE_NUM;
+		else if(c>'a' && c<'Z')
+			return TYPE_ENG;
+		else if(Character.isLetter(c))
+			return TYPE_CJ;
+		else 
+			return TYPE_SYMBOL;
+	}
 
 	
 	
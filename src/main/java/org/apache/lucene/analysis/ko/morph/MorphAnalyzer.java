@@ -22,7 +22,13 @@ import org.apache.lucene.analysis.ko.utils.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class MorphAnalyzer {
 
@@ -41,6 +47,16 @@ public class MorphAnalyzer {
    */
   public static final int POS_END = 3;  
   
+  /**
+   * the number of distinct eojeols analyzed by a task of {@link #analyzeAll(String[], int, int)}
+   */
+  private static final int BATCH_CHUNK = 32;
+  
+  /**
+   * the maximum number of discarded candidates kept by a thread for the next analysis
+   */
+  private static final int POOL_SIZE = 64;
+  
   /**
    * determin whether one letter is divisible when to divide a compound noun.
    */
@@ -51,14 +67,123 @@ public class MorphAnalyzer {
   
   private AbbrevFinder abbvFinder = new AbbrevFinder();
   
+  /**
+   * the dictionary given to the constructor, or null to read the default dictionary
+   */
+  private final Dictionary dictionary;
+  
+  /**
+   * 어절 단위의 분석결과 캐시. null 이면 캐시하지 않는다.
+   */
+  private AnalysisCache cache;
+  
+  /**
+   * 일괄 분석에 사용하는 executor. null 이면 호출한 thread 에서 분석한다.
+   */
+  private ExecutorService executor;
+  
+  /**
+   * 사용자 사전. null 이면 공유 사전만 사용한다.
+   */
+  private UserDictionary userDictionary;
+  
+  /**
+   * the last dictionary made with the user dictionary, and the dictionary it is made of:
+   * {the dictionary, the one with the user dictionary}
+   */
+  private volatile Dictionary[] withUser;
+  
+  /**
+   * 분석 후보의 재사용 pool, thread 마다 하나씩 사용한다.
+   */
+  private final ThreadLocal<AnalysisOutputPool> pools = new ThreadLocal<AnalysisOutputPool>() {
+    protected AnalysisOutputPool initialValue() {
+      return new AnalysisOutputPool(POOL_SIZE);
+    }
+  };
+  
+  /**
+   * creates an analyzer with the default dictionary, which is loaded now if it is not yet,
+   * so that the analysis never waits for the dictionary files.
+   * an analyzer can be shared by threads once it is configured.
+   */
   public MorphAnalyzer() {
+    try {
+      Dictionary.getDefault();
+    } catch (MorphException e) {
+      throw new RuntimeException(e);
+    }
+    this.dictionary = null;
     cnAnalyzer.setExactMach(false);
   }
   
+  /**
+   * creates an analyzer which reads only the given dictionary. unlike the analyzers
+   * with the default dictionary, it does not see the dictionaries which replace the
+   * default one, by {@link Dictionary#reload()} or {@link DictionaryUtil#addEntry(WordEntry)}.
+   * an analyzer can be shared by threads once it is configured.
+   * @param dictionary  the dictionary, for instance one loaded by {@link Dictionary#load()}
+   */
+  public MorphAnalyzer(Dictionary dictionary) {
+    if(dictionary==null) throw new IllegalArgumentException("dictionary is null");
+    this.dictionary = dictionary;
+    cnAnalyzer.setExactMach(false);
+  }
+  
+  /**
+   * Returns the dictionary which is used now: the one given to the constructor,
+   * otherwise the default dictionary, see {@link Dictionary#reload()}, with the
+   * user dictionary if one is set. its lookups see the words of the user dictionary
+   * outside the analysis too.
+   */
+  public Dictionary getDictionary() {
+    return withUserDictionary(dictionary!=null ? dictionary : Dictionary.current());
+  }
+  
+  /**
+   * Returns the dictionary for an analysis which starts now. a nested analysis
+   * reads the dictionary of the outer one, unless this analyzer has its own.
+   */
+  private Dictionary dictionary() throws MorphException {
+    return withUserDictionary(dictionary!=null ? dictionary : Dictionary.inUse());
+  }
+  
+  /**
+   * Returns the dictionary with the user dictionary, which is made once for each
+   * dictionary, not for each analysis.
+   */
+  private Dictionary withUserDictionary(Dictionary dic) {
+    UserDictionary user = userDictionary;
+    if(user==null||dic==null) return dic;
+    
+    Dictionary[] last = withUser;
+    if(last!=null && last[0]==dic && last[1].getUserDictionary()==user) return last[1];
+    
+    Dictionary layered = dic.withUserDictionary(user);
+    withUser = new Dictionary[] {dic, layered};
+    return layered;
+  }
+  
   public void setExactCompound(boolean is) {
     cnAnalyzer.setExactMach(is);
   }
   
+  /**
+   * set the maximum number of dictionary probes to segment a long compound noun,
+   * see {@link CompoundNounAnalyzer#setMaxProbes(int)}
+   * @param max the maximum number of probes, 0 for no limit
+   */
+  public void setMaxCompoundProbes(int max) {
+    cnAnalyzer.setMaxProbes(max);
+  }
+  
+  /**
+   * Returns the number of compound nouns which exceeded the maximum number of probes.
+   */
+  public long getCompoundExceededCount() {
+    return cnAnalyzer.getExceededCount();
+  }
+  
   /**
    * set if one char can be divisible
    * @param is
@@ -68,15 +193,158 @@ public class MorphAnalyzer {
 	  divisibleOne = is;
   }
   
+  /**
+   * set the cache of the analysis results, which may be shared by several analyzers.
+   * @param cache the cache, or null not to cache
+   */
+  public void setCache(AnalysisCache cache) {
+    this.cache = cache;
+  }
+  
+  public AnalysisCache getCache() {
+    return cache;
+  }
+  
+  /**
+   * set the cache of the compound noun decompositions, which may be shared by several analyzers.
+   * the decompositions are cached by the dictionary as well, so the analyzers with
+   * different user dictionaries can share the cache, but those sharing it should
+   * have the same maximum number of probes, see {@link CompoundNounCache}.
+   * @param cache the cache, or null not to cache
+   */
+  public void setCompoundCache(CompoundNounCache cache) {
+    cnAnalyzer.setCache(cache);
+  }
+  
+  public CompoundNounCache getCompoundCache() {
+    return cnAnalyzer.getCache();
+  }
+  
+  /**
+   * set the executor which runs the analysis of {@link #analyzeAll(String[], int, int)}.
+   * the executor is not shut down by the analyzer.
+   * @param executor the executor, or null to analyze in the calling thread
+   */
+  public void setExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+  
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+  
+  /**
+   * set the user dictionary whose words are looked up before the shared dictionary,
+   * see {@link Dictionary#withUserDictionary(UserDictionary)}. the caches keep the
+   * results of each user dictionary apart, so they can be shared by the analyzers
+   * with different user dictionaries.
+   * @param dic the user dictionary, or null to use the shared dictionary only
+   */
+  public void setUserDictionary(UserDictionary dic) {
+    this.userDictionary = dic;
+  }
+  
+  public UserDictionary getUserDictionary() {
+    return userDictionary;
+  }
+  
   public List<AnalysisOutput> analyze(String input) throws MorphException {  
 
-	List<AnalysisOutput> outputs = abbvFinder.find(input);
-	if(outputs!=null) return outputs;
-	
-    if(input.endsWith("."))  
-      return analyze(input.substring(0,input.length()-1), POS_END);
+    Dictionary dic = dictionary();
+    Dictionary previous = Dictionary.use(dic);
+    try {
+      List<AnalysisOutput> outputs = abbvFinder.find(dic, input);
+      if(outputs!=null) return outputs;
+      
+      if(input.endsWith("."))  
+        return analyzeCached(dic, input.substring(0,input.length()-1), POS_END);
+      
+      return analyzeCached(dic, input, POS_MID);
+    } finally {
+      Dictionary.use(previous);
+    }
+  }
+  
+  /**
+   * analyzes the eojeols, see {@link #analyzeAll(String[], int, int)}
+   */
+  public List<List<AnalysisOutput>> analyzeAll(List<String> inputs) throws MorphException {
+    return analyzeAll(inputs.toArray(new String[inputs.size()]), 0, inputs.size());
+  }
+  
+  /**
+   * analyzes the eojeols from inputs[from] to inputs[to-1] like {@link #analyze(String)}.
+   * each distinct eojeol is analyzed once and identical eojeols share the same results.
+   * the distinct eojeols are analyzed in parallel when an executor is set.
+   * @return the results of each eojeol, in the order of the inputs. the results are
+   * unmodifiable, since the same list and outputs are returned for identical eojeols;
+   * copy them before modifying.
+   */
+  public List<List<AnalysisOutput>> analyzeAll(String[] inputs, int from, int to) throws MorphException {
+    
+    Map<String, Integer> indexes = new LinkedHashMap<String, Integer>();
+    int[] positions = new int[to-from];
+    for(int i=from;i<to;i++) {
+      Integer index = indexes.get(inputs[i]);
+      if(index==null) {
+        index = indexes.size();
+        indexes.put(inputs[i], index);
+      }
+      positions[i-from] = index;
+    }
+    
+    String[] distinct = indexes.keySet().toArray(new String[indexes.size()]);
+    List<List<AnalysisOutput>> results = analyzeDistinct(distinct);
     
-    return analyze(input, POS_MID);
+    for(int i=0;i<results.size();i++) {
+      results.set(i, Collections.unmodifiableList(results.get(i)));
+    }
+    
+    List<List<AnalysisOutput>> outputs = new ArrayList<List<AnalysisOutput>>(positions.length);
+    for(int index : positions) outputs.add(results.get(index));
+    return outputs;
+  }
+  
+  private List<List<AnalysisOutput>> analyzeDistinct(final String[] inputs) throws MorphException {
+    
+    if(executor==null || inputs.length<=BATCH_CHUNK) {
+      List<List<AnalysisOutput>> results = new ArrayList<List<AnalysisOutput>>(inputs.length);
+      for(String input : inputs) results.add(analyze(input));
+      return results;
+    }
+    
+    // each task sets its own slots, which are read after all the tasks are done
+    final List<List<AnalysisOutput>> results =
+        new ArrayList<List<AnalysisOutput>>(Collections.<List<AnalysisOutput>>nCopies(inputs.length, null));
+    
+    List<Future<Object>> futures = new ArrayList<Future<Object>>();
+    for(int start=0;start<inputs.length;start+=BATCH_CHUNK) {
+      final int from = start;
+      final int to = Math.min(start+BATCH_CHUNK, inputs.length);
+      futures.add(executor.submit(new Callable<Object>() {
+        public Object call() throws MorphException {
+          for(int i=from;i<to;i++) results.set(i, analyze(inputs[i]));
+          return null;
+        }
+      }));
+    }
+    
+    try {
+      for(Future<Object> future : futures) future.get();
+    } catch (InterruptedException e) {
+      for(Future<Object> future : futures) future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new MorphException("interrupted while analyzing", e);
+    } catch (ExecutionException e) {
+      for(Future<Object> future : futures) future.cancel(true);
+      Throwable cause = e.getCause();
+      if(cause instanceof MorphException) throw (MorphException)cause;
+      if(cause instanceof RuntimeException) throw (RuntimeException)cause;
+      if(cause instanceof Error) throw (Error)cause;
+      throw new MorphException(cause);
+    }
+    
+    return results;
   }
   
 
@@ -85,31 +353,185 @@ public class MorphAnalyzer {
    * 
    * @param input input
    * @param pos pos
-   * @return candidates
+   * @return candidates, which are unmodifiable when a cache is set
    * @throws MorphException exception
    */
   public List<AnalysisOutput> analyze(String input, int pos) throws MorphException {    
 
-    List<AnalysisOutput> candidates = new ArrayList<AnalysisOutput>();        
-    boolean isVerbOnly = MorphUtil.hasVerbSyllableOnly(input);
+    // reads one dictionary even if it is replaced during the analysis
+    Dictionary dic = dictionary();
+    Dictionary previous = Dictionary.use(dic);
+    try {
+      return analyzeCached(dic, input, pos);
+    } finally {
+      Dictionary.use(previous);
+    }
+  }
+  
+  private List<AnalysisOutput> analyzeCached(Dictionary dic, String input, int pos) throws MorphException {
+    
+    if(cache==null) return analyzeEojeol(dic, input, pos);
+
+    Dictionary current = Dictionary.current();
+    boolean exactCompound = cnAnalyzer.isExactMach();
+    int maxCompoundProbes = cnAnalyzer.getMaxProbes();
+    List<AnalysisOutput> results = cache.get(dic, input, pos, exactCompound, divisibleOne, maxCompoundProbes);
+    if(results!=null) return results;
+
+    results = analyzeEojeol(dic, input, pos);
+    // not cached if the default dictionary has been replaced during the analysis,
+    // since the cache has dropped the results of the old one
+    if(Dictionary.current()!=current) return Collections.unmodifiableList(results);
+    return cache.put(dic, input, pos, exactCompound, divisibleOne, maxCompoundProbes, results);
+  }
+  
+  /**
+   * returns the best analysis of the eojeol, which is the first of {@link #analyze(String)}.
+   */
+  public AnalysisOutput analyzeBest(String input) throws MorphException {
+
+    Dictionary dic = dictionary();
+    Dictionary previous = Dictionary.use(dic);
+    try {
+      List<AnalysisOutput> outputs = abbvFinder.find(dic, input);
+      if(outputs!=null) return outputs.get(0);
+      
+      if(input.endsWith("."))  
+        return analyzeBestCandidate(dic, input.substring(0,input.length()-1), POS_END);
+      
+      return analyzeBestCandidate(dic, input, POS_MID);
+    } finally {
+      Dictionary.use(previous);
+    }
+  }
+  
+  /**
+   * returns the best analysis of the eojeol, which is the first of {@link #analyze(String, int)}.
+   * when a candidate confirmed by the dictionary is the best, it is returned without ranking
+   * the candidates and decomposing the compound nouns among them.
+   * the cached results are used when a cache is set.
+   * @param input input
+   * @param pos pos
+   * @return the best analysis, which must not be modified when a cache is set
+   * @throws MorphException exception
+   */
+  public AnalysisOutput analyzeBest(String input, int pos) throws MorphException {
+    
+    Dictionary dic = dictionary();
+    Dictionary previous = Dictionary.use(dic);
+    try {
+      return analyzeBestCandidate(dic, input, pos);
+    } finally {
+      Dictionary.use(previous);
+    }
+  }
+  
+  private AnalysisOutput analyzeBestCandidate(Dictionary dic, String input, int pos) throws MorphException {
+    
+    if(cache!=null) return analyzeCached(dic, input, pos).get(0);
+    
+    boolean isVerbOnly = MorphUtil.hasVerbSyllableOnly(dic, input);
+    List<AnalysisOutput> candidates = analyzeCandidates(dic, input, isVerbOnly);
+    
+    AnalysisOutput best = dominantCandidate(candidates);
+    if(best==null) return chooseResults(dic, input, candidates, isVerbOnly).get(0);
+    
+    best.setSource(input);
+    AnalysisOutputPool pool = pools.get();
+    for(AnalysisOutput o : candidates) {
+      if(o!=best) pool.release(o);
+    }
+    return best;
+  }
+  
+  /**
+   * returns the candidate which {@link #chooseResults(Dictionary, String, List, boolean)} would choose
+   * first, or null if it is not known without ranking them.
+   * that is the best candidate when it is confirmed by the dictionary, unless a candidate
+   * which {@link #decompoundNoun(Dictionary, List, boolean, AnalysisOutputComparator)} would decompose
+   * could be confirmed as a better compound noun, or could replace it in the results.
+   * the other candidates are never decomposed then.
+   */
+  private AnalysisOutput dominantCandidate(List<AnalysisOutput> candidates) {
+    
     AnalysisOutputComparator<AnalysisOutput> comparator = new AnalysisOutputComparator<AnalysisOutput>();
+    AnalysisOutput best = null;
+    for(AnalysisOutput o : candidates) {
+      if(best==null || comparator.compare(o, best)<0) best = o;
+    }
+    
+    if(best==null || best.getScore()!=AnalysisOutput.SCORE_CORRECT) return null;
+    
+    // a correct candidate is ranked after the best one if its stem is shorter, except for
+    // the stems ranked by the pattern, and decomposing a stem never makes it longer.
+    int minLength = AnalysisOutputComparator.startsWithVerbPreferred(best.getStem()) ? 0 : best.getStem().length();
+    boolean stopsDecompound = false; // a correct candidate which is not a noun stops decompounding
+    boolean decomposable = false;
+    
+    for(AnalysisOutput o : candidates) {
+      if(o.getPatn()==PatternConstants.PTN_N) continue;
+      if(o.getScore()==AnalysisOutput.SCORE_CORRECT) stopsDecompound = true;
+      else if(o.getScore()<AnalysisOutput.SCORE_COMPOUNDS && o.getPatn()<PatternConstants.PTN_VM
+          && o.getStem().length()>2
+          && (o.getStem().length()>=minLength || AnalysisOutputComparator.startsWithVerbPreferred(o.getStem()))) 
+        decomposable = true;
+    }
     
-    analysisByRule(input, candidates);    
+    if(decomposable && !stopsDecompound) return null;
+    
+    // see addResults(), a result is replaced by one with the same stem and a greater pattern
+    for(AnalysisOutput o : candidates) {
+      if(o!=best && o.getScore()==AnalysisOutput.SCORE_CORRECT && o.getPos()==best.getPos()
+          && o.getPatn()>best.getPatn() && o.getStem().equals(best.getStem())) return null;
+    }
+    
+    return best;
+  }
+  
+  private List<AnalysisOutput> analyzeEojeol(Dictionary dic, String input, int pos) throws MorphException {    
+
+    boolean isVerbOnly = MorphUtil.hasVerbSyllableOnly(dic, input);
+    List<AnalysisOutput> candidates = analyzeCandidates(dic, input, isVerbOnly);
+    return chooseResults(dic, input, candidates, isVerbOnly);
+  }
+  
+  /**
+   * analyzes the eojeol by the rules and as a single word.
+   * the dictionary is the one pinned by the analysis, which is passed down to the
+   * lookups made for every eojeol instead of reading {@link Dictionary#inUse()} each time.
+   */
+  private List<AnalysisOutput> analyzeCandidates(Dictionary dic, String input, boolean isVerbOnly) throws MorphException {    
+
+    List<AnalysisOutput> candidates = new ArrayList<AnalysisOutput>();        
+    
+    WordEntry[] prefixes = prefixEntries(dic, input);
+    
+    analysisByRule(dic, input, prefixes, candidates);    
     
     if((!isVerbOnly && onlyHangulWithinStem(candidates) && 
     		MorphUtil.isNotCorrect(candidates)) || 
-    		DictionaryUtil.getWordExceptVerb(input)!=null) 
+    		DictionaryUtil.exceptVerb(prefixes[input.length()])!=null) 
     {
-    	addSingleWord(input,candidates);
+    	addSingleWord(dic,input,prefixes[input.length()],candidates);
     }	
     
     // check if one letter exists in the compound noun entries
     checkOneLetterInCNoun(candidates);
     
+    return candidates;
+  }
+  
+  /**
+   * ranks the candidates and returns the valid results among them
+   */
+  private List<AnalysisOutput> chooseResults(Dictionary dic, String input, List<AnalysisOutput> candidates, boolean isVerbOnly) throws MorphException {    
+
+    AnalysisOutputComparator<AnalysisOutput> comparator = new AnalysisOutputComparator<AnalysisOutput>();
+    
     Collections.sort(candidates,comparator);
     
     // divide compound noun into unit noun
-    decompoundNoun(candidates, isVerbOnly, comparator);
+    decompoundNoun(dic, candidates, isVerbOnly, comparator);
 
     List<AnalysisOutput> results = new ArrayList<AnalysisOutput>();  
     HashMap<String, AnalysisOutput> stems = new HashMap<String, AnalysisOutput>();
@@ -128,8 +550,27 @@ public class MorphAnalyzer {
       results.add(output);
     }
     
+    release(candidates, results);
+    
     return results;
   }
+  
+  /**
+   * returns the candidates which are not in the results to the pool of this thread
+   */
+  private void release(List<AnalysisOutput> candidates, List<AnalysisOutput> results) {
+    AnalysisOutputPool pool = pools.get();
+    for(AnalysisOutput o : candidates) {
+      if(!containsSame(results, o)) pool.release(o);
+    }
+  }
+  
+  private static boolean containsSame(List<AnalysisOutput> outputs, AnalysisOutput o) {
+    for(int i=0;i<outputs.size();i++) {
+      if(outputs.get(i)==o) return true;
+    }
+    return false;
+  }
 
   private AnalysisOutput chooseValidResults(String input, List<AnalysisOutput> candidates, List<AnalysisOutput> results,
 			HashMap<String, AnalysisOutput> stems) {
@@ -205,7 +646,7 @@ public class MorphAnalyzer {
 		return compound;
 	}
 	
-	private void decompoundNoun(List<AnalysisOutput> candidates, boolean isVerbOnly, AnalysisOutputComparator<AnalysisOutput> comparator) throws MorphException {
+	private void decompoundNoun(Dictionary dic, List<AnalysisOutput> candidates, boolean isVerbOnly, AnalysisOutputComparator<AnalysisOutput> comparator) throws MorphException {
 		// 복합명사 분해여부 결정하여 분해
 	    boolean changed = false;
 	    boolean correct = false;
@@ -223,7 +664,7 @@ public class MorphAnalyzer {
 	      if(o.getScore()==AnalysisOutput.SCORE_CORRECT || isVerbOnly) {
 	    	  
 	    	if(o.getPatn()<=PatternConstants.PTN_NJ && !isVerbOnly) {
-	    		confirmCNoun(o, true);
+	    		confirmCNoun(dic, o, true);
 	    	}
 	    	
 	    	if(o.getScore()==AnalysisOutput.SCORE_CORRECT){
@@ -237,7 +678,7 @@ public class MorphAnalyzer {
 	    	  
 	        if(!(correct&&o.getPatn()==PatternConstants.PTN_N) 
 	        		&& !"내".equals(o.getVsfx())) {
-	        	confirmCNoun(o);
+	        	confirmCNoun(dic, o, false);
 	        }
 	        
 	        if(o.getScore()>=AnalysisOutput.SCORE_COMPOUNDS) {
@@ -272,9 +713,28 @@ public class MorphAnalyzer {
       candidates.remove(o);
     }
     
+    AnalysisOutputPool pool = pools.get();
+    for(AnalysisOutput o : removeds) {
+      if(!containsSame(candidates, o)) pool.release(o);
+    }
+    
+  }
+  
+  /**
+   * 입력의 모든 접두어에 대한 사전 정보를 사전을 한 번 탐색하여 구한다.
+   * @return  the entry of input.substring(0,i) at i, null if it is not in the dictionary
+   */
+  private WordEntry[] prefixEntries(Dictionary dic, String input) {
+    WordEntry[] entries = new WordEntry[input.length()+1];
+    List<WordEntry> found = new ArrayList<WordEntry>(4);
+    dic.commonPrefixSearch(input, 0, input.length(), found);
+    for(WordEntry entry : found) {
+      entries[entry.getWord().length()] = entry;
+    }
+    return entries;
   }
   
-  private void analysisByRule(String input, List<AnalysisOutput> candidates) throws MorphException {
+  private void analysisByRule(Dictionary dic, String input, WordEntry[] prefixes, List<AnalysisOutput> candidates) throws MorphException {
   
     boolean josaFlag = true;
     boolean eomiFlag = true;
@@ -284,22 +744,44 @@ public class MorphAnalyzer {
     boolean isVerbOnly = false;
     analysisWithEomi(input,"",candidates);
     
+    // input[i..] is walked from the right in the reversed josa and eomi tries.
+    // every eomi tried by analysisWithEomi ends with input[i..] (or with input[i+1..] after '여'),
+    // so a dead state means there is nothing to analyze at i and to the left of i.
+    DoubleArrayTrie<String> josas = dic.getReverseJosa();
+    DoubleArrayTrie<String> eomis = dic.getReverseEomi();
+    int josaState = 0;
+    int eomiState = 0;
+    
     for(int i=strlen-1;i>0;i--) {
       
-      String stem = input.substring(0,i);
-      String eomi = input.substring(i);
+      char ch = input.charAt(i);
+      int nextEomiState = eomiState;
+      if(josaState>=0) josaState = josas.next(josaState, ch);
+      if(eomiState>=0) eomiState = eomis.next(eomiState, ch);
+      
+      boolean hasJosa = josaState>=0 && josas.valueAt(josaState)!=null;
+      boolean hasEomi = eomiState>=0 || (ch=='여' && nextEomiState>=0);
+      if(josaState<0 && !hasEomi) break;
 
-      char[] feature =  SyllableUtil.getFeature(eomi.charAt(0));    
-      if(!isVerbOnly&&josaFlag&&feature[SyllableUtil.IDX_JOSA1]=='1') {        
-        analysisWithJosa(stem,eomi,candidates);
-      }
+      long feature =  dic.getSyllableFeature(ch);
+      boolean withJosa = !isVerbOnly&&josaFlag&&(feature&(1L<<SyllableUtil.IDX_JOSA1))!=0&&hasJosa;
+      boolean withEomi = eomiFlag&&hasEomi;
       
-      if(eomiFlag) {      
-        analysisWithEomi(stem,eomi,candidates);
-      }      
+      if(withJosa||withEomi) {
+        String stem = input.substring(0,i);
+        String eomi = input.substring(i);
+        
+        if(withJosa) {        
+          analysisWithJosa(dic,stem,eomi,prefixes[i],candidates);
+        }
+        
+        if(withEomi) {      
+          analysisWithEomi(stem,eomi,candidates);
+        }      
+      }
       
-      if(josaFlag&&feature[SyllableUtil.IDX_JOSA2]=='0') josaFlag = false;
-      if(eomiFlag&&feature[SyllableUtil.IDX_EOMI2]=='0') eomiFlag = false;
+      if(josaFlag&&(feature&(1L<<SyllableUtil.IDX_JOSA2))==0) josaFlag = false;
+      if(eomiFlag&&(feature&(1L<<SyllableUtil.IDX_EOMI2))==0) eomiFlag = false;
       
       if(!josaFlag&&!eomiFlag) break;
     }
@@ -342,40 +824,39 @@ public class MorphAnalyzer {
 	  return onlyHangul;
   }
   
-  private void addSingleWord(String word, List<AnalysisOutput> candidates) throws MorphException {
+  private void addSingleWord(Dictionary dic, String word, WordEntry entry, List<AnalysisOutput> candidates) throws MorphException {
     
 //    if(candidates.size()!=0&&candidates.get(0).getScore()==AnalysisOutput.SCORE_CORRECT) return;
 	    
     AnalysisOutput output = new AnalysisOutput(word, null, null, PatternConstants.PTN_N);
     output.setPos(PatternConstants.POS_NOUN);
 
-    WordEntry entry;
-    if((entry=DictionaryUtil.getWord(word))!=null) {
+    if(entry!=null) {
 
-      if(entry.getFeature(WordEntry.IDX_NOUN)!='1'&&
-          entry.getFeature(WordEntry.IDX_BUSA)=='1') {
+      if(!entry.isNoun()&&
+          entry.isBusa()) {
         AnalysisOutput busa = new AnalysisOutput(word, null, null, PatternConstants.PTN_AID);
         busa.setPos(PatternConstants.POS_ETC);
         
         busa.setScore(AnalysisOutput.SCORE_CORRECT);
         candidates.add(0,busa);    
-      }else if(entry.getFeature(WordEntry.IDX_NOUN)=='1') {
+      }else if(entry.isNoun()) {
         output.setScore(AnalysisOutput.SCORE_CORRECT);
         candidates.add(0,output);
-      }else if(entry.getFeature(WordEntry.IDX_NOUN)=='2') {
+      }else if(entry.isCompoundNoun()) {
     	output.setScore(AnalysisOutput.SCORE_CORRECT);
-    	output.addCNoun(entry.getCompounds());
+    	output.setCNoun(entry.getCompounds());
         candidates.add(0,output);
       }
       
-      if(entry.getFeature(WordEntry.IDX_VERB)!='1') return;
+      if(!entry.isVerb()) return;
     } else if(candidates.size()==0||!NounUtil.endsWith2Josa(word)) {
       output.setScore(AnalysisOutput.SCORE_ANALYSIS);
       candidates.add(0,output);
     }
     
     if(output.getScore()!=AnalysisOutput.SCORE_CORRECT) {
-    	boolean success = confirmCNoun(output);
+    	boolean success = confirmCNoun(dic, output, false);
     	if(success) candidates.add(0,output);
     }
     	
@@ -393,36 +874,44 @@ public class MorphAnalyzer {
    * @throws MorphException exception
    */
   public void analysisWithJosa(String stem, String end, List<AnalysisOutput> candidates) throws MorphException {
+    if(stem==null||stem.length()==0) return;  
+    Dictionary dic = Dictionary.inUse();
+    analysisWithJosa(dic, stem, end, dic.getWord(stem), candidates);
+  }
+  
+  /**
+   * @param stemEntry  the dictionary entry of the stem, null if none
+   */
+  private void analysisWithJosa(Dictionary dic, String stem, String end, WordEntry stemEntry, List<AnalysisOutput> candidates) throws MorphException {
   
     if(stem==null||stem.length()==0) return;  
     
-    char[] chrs = MorphUtil.decompose(stem.charAt(stem.length()-1));
+    char last = stem.charAt(stem.length()-1);
     if(!DictionaryUtil.existJosa(end)||
-        (chrs.length==3&&ConstraintUtil.isTwoJosa(end))||
-        (chrs.length==2&&(ConstraintUtil.isThreeJosa(end))||
+        (MorphUtil.hasJongseong(last)&&ConstraintUtil.isTwoJosa(end))||
+        (MorphUtil.isOpenSyllable(last)&&(ConstraintUtil.isThreeJosa(end))||
         "".equals(end))) 
     	return; // 연결이 가능한 조사가 아니면...
 
-    AnalysisOutput output = new AnalysisOutput(stem, end, null, PatternConstants.PTN_NJ);
+    AnalysisOutputPool pool = pools.get();
+    AnalysisOutput output = pool.get(stem, end, null, PatternConstants.PTN_NJ);
     output.setPos(PatternConstants.POS_NOUN);
     
-    boolean success = false;
-    try {
-      success = NounUtil.analysisMJ(output.clone(), candidates);
-    } catch (CloneNotSupportedException e) {
-      throw new MorphException(e.getMessage(),e);
-    }
+    boolean success = NounUtil.endsWithNominalEomi(stem) && NounUtil.analysisMJ(pool.copyOf(output), candidates);
 
-    WordEntry entry = DictionaryUtil.getWordExceptVerb(stem);
+    WordEntry entry = DictionaryUtil.exceptVerb(stemEntry);
     if(entry!=null) {
       output.setScore(AnalysisOutput.SCORE_CORRECT);
-      if(entry.getFeature(WordEntry.IDX_NOUN)=='0'&&entry.getFeature(WordEntry.IDX_BUSA)=='1') {
+      if(entry.getFeature(WordEntry.IDX_NOUN)=='0'&&entry.isBusa()) {
         output.setPos(PatternConstants.POS_ETC);
         output.setPatn(PatternConstants.PTN_ADVJ);
       }
-      if(entry.getCompounds().size()>1) output.addCNoun(entry.getCompounds());
+      if(entry.getCompounds().size()>1) output.setCNoun(entry.getCompounds());
     }else {
-      if(success || MorphUtil.hasVerbSyllableOnly(stem)) return;
+      if(success || MorphUtil.hasVerbSyllableOnly(dic, stem)) {
+        pool.release(output);
+        return;
+      }
     }
     
 //    NounUtil.confirmDNoun(output);
@@ -452,26 +941,27 @@ public class MorphAnalyzer {
 
     String[] pomis = EomiUtil.splitPomi(morphs[0]);
 
-    AnalysisOutput o = new AnalysisOutput(pomis[0],null,morphs[1],PatternConstants.PTN_VM);
+    AnalysisOutputPool pool = pools.get();
+    AnalysisOutput o = pool.get(pomis[0],null,morphs[1],PatternConstants.PTN_VM);
     o.setPomi(pomis[1]);
   
     try {    
 
       WordEntry entry = DictionaryUtil.getVerb(o.getStem());  
-      if(entry!=null&&!("을".equals(end)&&entry.getFeature(WordEntry.IDX_REGURA)==IrregularUtil.IRR_TYPE_LIUL)) {              
-        AnalysisOutput output = o.clone();
+      if(entry!=null&&!("을".equals(end)&&entry.getIrregularType()==IrregularUtil.IRR_TYPE_LIUL)) {              
+        AnalysisOutput output = pool.copyOf(o);
         output.setScore(AnalysisOutput.SCORE_CORRECT);
         MorphUtil.buildPtnVM(output, candidates);
         
-        char[] features = SyllableUtil.getFeature(stem.charAt(stem.length()-1)); // ㄹ불규칙일 경우
-        if((features[SyllableUtil.IDX_YNPLN]=='0'||morphs[1].charAt(0)!='ㄴ')&&!"는".equals(end))   // "갈(V),는" 분석될 수 있도록
+        // ㄹ불규칙일 경우
+        if((!SyllableUtil.hasFeature(stem.charAt(stem.length()-1), SyllableUtil.IDX_YNPLN)||morphs[1].charAt(0)!='ㄴ')&&!"는".equals(end))   // "갈(V),는" 분석될 수 있도록
           return;
       }
 
       String[] irrs = IrregularUtil.restoreIrregularVerb(o.getStem(), o.getPomi()==null?o.getEomi():o.getPomi());
 
       if(irrs!=null) { // 불규칙동사인 경우
-        AnalysisOutput output = o.clone();
+        AnalysisOutput output = pool.copyOf(o);
         output.setStem(irrs[0]);
         
         if(output.getPomi()==null) {
@@ -484,19 +974,25 @@ public class MorphAnalyzer {
         MorphUtil.buildPtnVM(output, candidates);      
       }
 
-      if(VerbUtil.ananlysisNSM(o.clone(), candidates)) return;
+      if(VerbUtil.ananlysisNSM(pool.copyOf(o), candidates)) return;
       
-      if(VerbUtil.ananlysisNSMXM(o.clone(), candidates)) return;
+      // the rules below fail before they modify the output unless the stem passes
+      // these checks, so the output is copied only for the stems which pass them.
+      String vstem = o.getStem();
+      boolean xverb = VerbUtil.endsWithXVerb(vstem)!=-1;
+      boolean copula = vstem.length()>=2 && vstem.charAt(vstem.length()-1)=='이';
+      
+      if(xverb && VerbUtil.ananlysisNSMXM(pool.copyOf(o), candidates)) return;
       
       // [체언 + '에서/에서부터' + '이' +  어미]
-      if(VerbUtil.ananlysisNJCM(o.clone(),candidates)) return;      
+      if(copula && vstem.length()>3 && VerbUtil.ananlysisNJCM(pool.copyOf(o),candidates)) return;      
       
-      if(VerbUtil.analysisVMCM(o.clone(),candidates)) return;  
+      if(copula && VerbUtil.analysisVMCM(pool.copyOf(o),candidates)) return;  
 
-      VerbUtil.analysisVMXM(o.clone(), candidates);
+      if(xverb) VerbUtil.analysisVMXM(pool.copyOf(o), candidates);
       
-    } catch (CloneNotSupportedException e) {
-      throw new MorphException(e.getMessage(),e);
+    } finally {
+      pool.release(o);
     }
     
   }    
@@ -524,11 +1020,15 @@ public class MorphAnalyzer {
   }
   
   public boolean confirmCNoun(AnalysisOutput o, boolean existInDic) throws MorphException  {
+    return confirmCNoun(Dictionary.inUse(), o, existInDic);
+  }
+  
+  private boolean confirmCNoun(Dictionary dic, AnalysisOutput o, boolean existInDic) throws MorphException  {
 
     if(o.getScore()>=AnalysisOutput.SCORE_COMPOUNDS) 
     	return false;
         
-    List<CompoundEntry> results = cnAnalyzer.analyze(o.getStem());
+    List<CompoundEntry> results = cnAnalyzer.analyze(dic, o.getStem());
     
     int retSize = results.size();
     
@@ -538,7 +1038,8 @@ public class MorphAnalyzer {
     	o.setStem(o.getStem().substring(0,o.getStem().length()-dnoun.length()));
     	o.setNsfx(dnoun);
     	
-    	results.remove(retSize-1);
+    	// the results may be cached or in the dictionary, so they are not modified
+    	results = results.subList(0, retSize-1);
     	
     	if(retSize==2) {
     		o.setScore(AnalysisOutput.SCORE_CORRECT);
@@ -641,7 +1142,7 @@ public class MorphAnalyzer {
 		  List<CompoundEntry> entries = co.getCNounList();
 		  for(CompoundEntry ce : entries) {
 			  if(ce.getWord().length()==1) {
-				  co.getCNounList().clear();
+				  co.setCNoun(null);
 				  break;
 			  }
 		  }
@@ -0,0 +1,80 @@
+package org.apache.lucene.analysis.ko.morph;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import java.util.List;
+
+/**
+ * {@link StreamAnalyzer} 가 분석한 어절.
+ * <p>
+ *
+ * The offsets are the positions of the eojeol in the whole stream, the end
+ * offset is exclusive. Only the eojeols which contain hangul are analyzed, the
+ * others have no outputs.
+ */
+public class MorphToken {
+
+  private final String term;
+
+  private final int startOffset;
+
+  private final int endOffset;
+
+  private final char type;
+
+  private final List<AnalysisOutput> outputs;
+
+  public MorphToken(String term, int startOffset, int endOffset, char type, List<AnalysisOutput> outputs) {
+    this.term = term;
+    this.startOffset = startOffset;
+    this.endOffset = endOffset;
+    this.type = type;
+    this.outputs = outputs;
+  }
+
+  public String getTerm() {
+    return term;
+  }
+
+  public int getStartOffset() {
+    return startOffset;
+  }
+
+  public int getEndOffset() {
+    return endOffset;
+  }
+
+  /**
+   * Returns {@link LanguageSpliter#TYPE_HAN} if the eojeol contains hangul,
+   * otherwise the type of the first character.
+   */
+  public char getType() {
+    return type;
+  }
+
+  /**
+   * Returns the results of {@link MorphAnalyzer#analyze(String)}, or null if the
+   * eojeol has no hangul.
+   */
+  public List<AnalysisOutput> getOutputs() {
+    return outputs;
+  }
+
+  public String toString() {
+    return term+"["+startOffset+","+endOffset+"]"+(outputs==null ? "" : outputs.toString());
+  }
+}
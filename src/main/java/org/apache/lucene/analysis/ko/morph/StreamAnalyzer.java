@@ -0,0 +1,81 @@
+package org.apache.lucene.analysis.ko.morph;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * 문서를 어절 단위로 읽어서 분석한다.
+ * <p>
+ *
+ * The text is read by an {@link EojeolReader} through a fixed size buffer, so a
+ * document of any size is analyzed in constant memory. An eojeol is a run of characters
+ * of the same type by {@link LanguageSpliter#typeOf(char)}, other than symbols and
+ * white spaces; a run longer than {@link #MAX_TOKEN_LENGTH} is split. The hangul
+ * eojeols are analyzed by the {@link MorphAnalyzer}.
+ * <pre>
+ *   StreamAnalyzer stream = new StreamAnalyzer(analyzer);
+ *   stream.reset(reader);
+ *   for(MorphToken token=stream.next(); token!=null; token=stream.next()) { ... }
+ * </pre>
+ * A stream analyzer must not be used by several threads at the same time.
+ */
+public class StreamAnalyzer {
+
+  public static final int DEFAULT_BUFFER_SIZE = EojeolReader.DEFAULT_BUFFER_SIZE;
+
+  public static final int MAX_TOKEN_LENGTH = EojeolReader.MAX_TOKEN_LENGTH;
+
+  private final MorphAnalyzer analyzer;
+
+  private final EojeolReader reader;
+
+  public StreamAnalyzer(MorphAnalyzer analyzer) {
+    this(analyzer, DEFAULT_BUFFER_SIZE);
+  }
+
+  public StreamAnalyzer(MorphAnalyzer analyzer, int bufferSize) {
+    this.analyzer = analyzer;
+    this.reader = new EojeolReader(bufferSize);
+  }
+
+  /**
+   * starts to analyze the reader. the reader is not closed by the analyzer.
+   */
+  public void reset(Reader input) {
+    reader.reset(input);
+  }
+
+  public void reset(CharSequence text) {
+    reset(new StringReader(text.toString()));
+  }
+
+  /**
+   * Returns the next eojeol, or null at the end of the stream.
+   */
+  public MorphToken next() throws IOException, MorphException {
+    if(!reader.next()) return null;
+
+    String word = new String(reader.termBuffer(), 0, reader.termLength());
+    char type = reader.type();
+    List<AnalysisOutput> outputs = type==LanguageSpliter.TYPE_HAN ? analyzer.analyze(word) : null;
+    return new MorphToken(word, reader.startOffset(), reader.endOffset(), type, outputs);
+  }
+}
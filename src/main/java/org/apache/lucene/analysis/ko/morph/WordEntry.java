@@ -17,6 +17,7 @@ package org.apache.lucene.analysis.ko.morph;
  * limitations under the License.
  */
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -33,17 +34,54 @@ public class WordEntry {
   public static final int IDX_BUSA_DETAIL = 8;  // 부사 세부정보
   public static final int IDX_REGURA = 9;
   
+  /** 명사 (IDX_NOUN is '1') */
+  public static final int NOUN = 1;
+  /** 복합명사 (IDX_NOUN is '2') */
+  public static final int COMPOUND_NOUN = 1<<1;
+  /** 용언 (IDX_VERB is '1') */
+  public static final int VERB = 1<<2;
+  /** 부사 (IDX_BUSA is '1') */
+  public static final int BUSA = 1<<3;
+  /** '하'가 붙어 용언이 되는 명사 (IDX_DOV is '1') */
+  public static final int DOV = 1<<4;
+  /** '되'가 붙어 용언이 되는 명사 (IDX_BEV is '1') */
+  public static final int BEV = 1<<5;
+  /** '내'가 붙어 용언이 되는 명사 (IDX_NE is '1') */
+  public static final int NE = 1<<6;
+  
+  /** 명사 또는 복합명사 */
+  public static final int ALL_NOUN = NOUN|COMPOUND_NOUN;
+  /** 명사, 복합명사 또는 부사 */
+  public static final int EXCEPT_VERB = NOUN|COMPOUND_NOUN|BUSA;
+  
+  private static final int CODE_BITS = 6;
+  private static final long CODE_MASK = (1L<<CODE_BITS)-1;
+  private static final int MAX_PACKED = 10;
+  private static final int LENGTH_SHIFT = CODE_BITS*MAX_PACKED;
+  
   /**
    * 단어
    */
   private String word;
   
   /**
-   * 단어특성
+   * 단어특성. 6 bits per feature character for the first 10 features and
+   * the number of features in the top 4 bits.
    */
-  private char[] features;
+  private long features;
   
-  private List<CompoundEntry> compounds = Collections.EMPTY_LIST;
+  /**
+   * 단어특성 which can not be packed (more than 10 features or characters
+   * other than digits and alphabets), null in most cases.
+   */
+  private char[] unpacked;
+  
+  /**
+   * the NOUN, VERB, ... bits of the features
+   */
+  private int flags;
+  
+  private List<CompoundEntry> compounds = Collections.<CompoundEntry>emptyList();
   
   public WordEntry() {
     
@@ -55,12 +93,12 @@ public class WordEntry {
   
   public WordEntry(String word, char[] cs) {
     this.word = word;
-    this.features = cs;
+    setFeatures(cs);
   }
   
   public WordEntry(String word, List<CompoundEntry> c) {
     this.word = word;
-    this.compounds = c;
+    setCompounds(c);
   }
   
   public void setWord(String w) {
@@ -72,23 +110,141 @@ public class WordEntry {
   }
   
   public void setFeatures(char[] cs) {
-    this.features = cs;
+    if(cs==null) {
+      features = 0;
+      unpacked = null;
+      flags = 0;
+    } else {
+      setFeatures(cs, 0, cs.length);
+    }
+  }
+  
+  /**
+   * Sets the features from cs[offset..offset+length).
+   */
+  public void setFeatures(char[] cs, int offset, int length) {
+    features = 0;
+    unpacked = null;
+    
+    if(length<=MAX_PACKED) {
+      long packed = (long)length<<LENGTH_SHIFT;
+      for(int i=0;i<length;i++) {
+        int code = encode(cs[offset+i]);
+        if(code<0) {
+          packed = -1;
+          break;
+        }
+        packed |= (long)code<<(i*CODE_BITS);
+      }
+      if(packed!=-1) features = packed;
+      else unpacked = Arrays.copyOfRange(cs, offset, offset+length);
+    } else {
+      unpacked = Arrays.copyOfRange(cs, offset, offset+length);
+    }
+    
+    flags = 0;
+    if(getFeature(IDX_NOUN)=='1') flags |= NOUN;
+    if(getFeature(IDX_NOUN)=='2') flags |= COMPOUND_NOUN;
+    if(getFeature(IDX_VERB)=='1') flags |= VERB;
+    if(getFeature(IDX_BUSA)=='1') flags |= BUSA;
+    if(getFeature(IDX_DOV)=='1') flags |= DOV;
+    if(getFeature(IDX_BEV)=='1') flags |= BEV;
+    if(getFeature(IDX_NE)=='1') flags |= NE;
   }
   
   public char getFeature(int index) {
-    if(features==null||features.length<=index) return '0';    
-    return features[index];
+    if(unpacked!=null) return unpacked.length<=index ? '0' : unpacked[index];
+    if((int)(features>>>LENGTH_SHIFT)<=index) return '0';
+    return decode((int)((features>>>(index*CODE_BITS))&CODE_MASK));
   }
   
+  /**
+   * Returns a copy of the features, or null if none is set.
+   */
   public char[] getFeatures() {
-    return this.features;
+    if(unpacked!=null) return unpacked.clone();
+    
+    int length = (int)(features>>>LENGTH_SHIFT);
+    if(length==0) return null;
+    char[] cs = new char[length];
+    for(int i=0;i<length;i++) cs[i] = getFeature(i);
+    return cs;
+  }
+  
+  /**
+   * Returns the NOUN, COMPOUND_NOUN, VERB, BUSA, DOV, BEV and NE bits of this entry.
+   */
+  public int getFlags() {
+    return flags;
+  }
+  
+  /**
+   * Returns true if any of the bits of the mask (e.g. {@link #EXCEPT_VERB}) is set.
+   */
+  public boolean hasAny(int mask) {
+    return (flags&mask)!=0;
   }
   
+  public boolean isNoun() {
+    return (flags&NOUN)!=0;
+  }
+  
+  public boolean isCompoundNoun() {
+    return (flags&COMPOUND_NOUN)!=0;
+  }
+  
+  public boolean isVerb() {
+    return (flags&VERB)!=0;
+  }
+  
+  public boolean isBusa() {
+    return (flags&BUSA)!=0;
+  }
+  
+  public boolean isDoVerb() {
+    return (flags&DOV)!=0;
+  }
+  
+  public boolean isBeVerb() {
+    return (flags&BEV)!=0;
+  }
+  
+  /**
+   * 불규칙 유형 (IrregularUtil.IRR_TYPE_*)
+   */
+  public char getIrregularType() {
+    return getFeature(IDX_REGURA);
+  }
+  
+  /**
+   * Sets the words of the compound noun. They are copied into an array which is
+   * shared by the analysis results as a read-only list.
+   */
   public void setCompounds(List<CompoundEntry> c) {
-    this.compounds = c;
+    if(c==null||c.isEmpty()) this.compounds = Collections.<CompoundEntry>emptyList();
+    else this.compounds = Collections.unmodifiableList(Arrays.asList(c.toArray(new CompoundEntry[c.size()])));
   }
   
+  /**
+   * Returns the words of the compound noun, which can not be modified.
+   */
   public List<CompoundEntry> getCompounds() {
     return this.compounds;
   }
+  
+  /**
+   * '0'..'9' to 0..9, 'A'..'Z' to 10..35, 'a'..'z' to 36..61, -1 for the others
+   */
+  private static int encode(char c) {
+    if(c>='0'&&c<='9') return c-'0';
+    if(c>='A'&&c<='Z') return c-'A'+10;
+    if(c>='a'&&c<='z') return c-'a'+36;
+    return -1;
+  }
+  
+  private static char decode(int code) {
+    if(code<10) return (char)('0'+code);
+    if(code<36) return (char)('A'+code-10);
+    return (char)('a'+code-36);
+  }
 }
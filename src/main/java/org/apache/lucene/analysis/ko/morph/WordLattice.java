@@ -0,0 +1,211 @@
+package org.apache.lucene.analysis.ko.morph;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 띄어쓰기가 되어 있지 않은 문장의 어절 후보 lattice.
+ * <p>
+ *
+ * Every fragment of at most {@link #MAX_WORD_LENGTH} characters (and the whole
+ * text) is analyzed once and becomes an edge of the lattice. The best path is found
+ * by a Viterbi search from the end of the text, which ranks the paths like
+ * {@link WordListComparator}: the longest correctly analyzed length first, then
+ * the fewest words, the most verbs, the fewest unknown words and finally the
+ * longest words from the front. Paths with two consecutive words whose stems
+ * are one character are only taken when there is no other path.
+ */
+class WordLattice {
+
+  /**
+   * the longest fragment which is analyzed as a word, except the whole text
+   */
+  static final int MAX_WORD_LENGTH = 10;
+
+  private final int length;
+
+  /**
+   * the analyses of the fragments, null if a fragment is not analyzed. those from
+   * start are words[starts[start]..starts[start+1]), in the order of their length.
+   */
+  private final List<List<AnalysisOutput>> words = new ArrayList<List<AnalysisOutput>>();
+
+  private final int[] starts;
+
+  // the best path of each state, a state is (position*2 + 1 if the first word has a one character stem)
+  private final int[] correct;
+
+  private final int[] count;
+
+  private final int[] verbs;
+
+  private final int[] unknowns;
+
+  private final int[] wordLength;
+
+  private final int[] nextFlags;
+
+  private final boolean[] reachable;
+
+  /**
+   * Analyzes the fragments until the budget is exceeded, one unit for each fragment.
+   * The lattice can not be searched if it is exceeded.
+   * @param analyzer  analyzes the fragments
+   * @param text  the text to segment
+   * @param outputs  the analysis of the whole text
+   * @param budget  the budget of the analyzed fragments
+   */
+  WordLattice(MorphAnalyzer analyzer, String text, List<AnalysisOutput> outputs, WorkBudget budget) throws MorphException {
+    length = text.length();
+    starts = new int[length+1];
+    for(int start=0;start<length&&!budget.isExceeded();start++) {
+      int max = start==0 ? length : Math.min(MAX_WORD_LENGTH, length-start);
+      for(int len=1;len<=max;len++) {
+        if(len==length) words.add(outputs);
+        else if(len<=MAX_WORD_LENGTH && budget.spend(1)) words.add(analyzer.analyze(text.substring(start, start+len)));
+        else words.add(null);
+      }
+      starts[start+1] = words.size();
+    }
+
+    int states = (length+1)*2;
+    correct = new int[states];
+    count = new int[states];
+    verbs = new int[states];
+    unknowns = new int[states];
+    wordLength = new int[states];
+    nextFlags = new int[states];
+    reachable = new boolean[states];
+  }
+
+  /**
+   * Returns the analysis of each word on the best path.
+   */
+  List<List<AnalysisOutput>> bestPath() {
+    int state = search(true);
+    if(state<0) state = search(false);
+
+    List<List<AnalysisOutput>> path = new ArrayList<List<AnalysisOutput>>();
+    for(int pos=0;pos<length;) {
+      int len = wordLength[state];
+      path.add(word(pos, len));
+      pos += len;
+      state = next(pos, state);
+    }
+    return path;
+  }
+
+  /**
+   * Fills the best path of every state and returns the best state at the start,
+   * or -1 if there is none.
+   * @param strict  whether if two consecutive one character words are excluded
+   */
+  private int search(boolean strict) {
+    Arrays.fill(reachable, false);
+    reachable[length*2] = true;
+
+    for(int start=length-1;start>=0;start--) {
+      for(int len=starts[start+1]-starts[start];len>0;len--) {
+        List<AnalysisOutput> word = word(start, len);
+        if(word==null) continue;
+        AnalysisOutput output = word.get(0);
+        int flag = output.getStem().length()==1 ? 1 : 0;
+        int state = start*2 + flag;
+        int end = start+len;
+
+        int c = len>1 && output.getScore()==AnalysisOutput.SCORE_CORRECT ? len : 0;
+        int v = len>1 && isVerb(output) ? 1 : 0;
+        int u = output.getScore()<=AnalysisOutput.SCORE_ANALYSIS ? 1 : 0;
+
+        for(int nextFlag=0;nextFlag<2;nextFlag++) {
+          int suffix = end*2 + nextFlag;
+          if(!reachable[suffix]) continue;
+          if(strict && flag==1 && nextFlag==1) continue;
+
+          int cmp = reachable[state] ? compare(c+correct[suffix], 1+count[suffix], v+verbs[suffix], u+unknowns[suffix], state) : -1;
+          if(cmp==0) cmp = compareLengths(len, suffix, state);
+          if(cmp>=0) continue;
+
+          reachable[state] = true;
+          correct[state] = c+correct[suffix];
+          count[state] = 1+count[suffix];
+          verbs[state] = v+verbs[suffix];
+          unknowns[state] = u+unknowns[suffix];
+          wordLength[state] = len;
+          nextFlags[state] = nextFlag;
+        }
+      }
+    }
+
+    if(!reachable[0]) return reachable[1] ? 1 : -1;
+    if(!reachable[1]) return 0;
+    int cmp = compare(correct[1], count[1], verbs[1], unknowns[1], 0);
+    if(cmp==0) cmp = compareLengths(wordLength[1], next(wordLength[1], 1), 0);
+    return cmp<0 ? 1 : 0;
+  }
+
+  /**
+   * Returns the analysis of the fragment from start with len characters.
+   */
+  private List<AnalysisOutput> word(int start, int len) {
+    return words.get(starts[start]+len-1);
+  }
+
+  private int next(int pos, int state) {
+    return pos*2 + nextFlags[state];
+  }
+
+  /**
+   * Compares the counts of a path with the best path of the state.
+   * @return  a negative number if the path is better
+   */
+  private int compare(int c, int n, int v, int u, int state) {
+    if(c!=correct[state]) return correct[state]-c;
+    if(n!=count[state]) return n-count[state];
+    if(v!=verbs[state]) return verbs[state]-v;
+    return u-unknowns[state];
+  }
+
+  /**
+   * Compares the path of a word with len characters followed by the best path of
+   * the suffix state with the best path of the state. The path with the longer
+   * words from the front is better.
+   * @return  a negative number if the path is better
+   */
+  private int compareLengths(int len, int suffix, int state) {
+    int otherLen = wordLength[state];
+    int other = next(suffix/2, state);
+    while(len==otherLen) {
+      if(suffix==other) return 0;
+      int pos = suffix/2;
+      len = wordLength[suffix];
+      otherLen = wordLength[other];
+      suffix = next(pos+len, suffix);
+      other = next(pos+otherLen, other);
+    }
+    return otherLen-len;
+  }
+
+  private static boolean isVerb(AnalysisOutput output) {
+    int ptn = output.getPatn();
+    return (ptn>=PatternConstants.PTN_VM && ptn<=PatternConstants.PTN_VMXMJ) || output.getEomi()!=null;
+  }
+}
@@ -2,8 +2,8 @@ package org.apache.lucene.analysis.ko.morph;
 
 import org.apache.lucene.analysis.ko.utils.DictionaryUtil;
 
-import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /*
@@ -27,12 +27,35 @@ public class WordSegmentAnalyzer {
 
   private final MorphAnalyzer morphAnal = new MorphAnalyzer();
 
-    private static final int maxCandidate = 64;
+  /**
+   * the maximum number of fragments analyzed for one input, 0 for no limit
+   */
+  private int maxCandidates = 0;
+
+  private final AtomicLong exceeded = new AtomicLong();
 
-    private static final int adjustNoOfCandidate = 40;
-    
     private static final String possibleWordStartJosa = "의은가나며아야에엔여와요이";
 
+  /**
+   * set the maximum number of fragments which are analyzed as candidate words of an input.
+   * when it is exceeded, the rest of the input is segmented into the longest nouns from the front.
+   * @param max the maximum number of fragments, 0 for no limit
+   */
+  public void setMaxCandidates(int max) {
+    this.maxCandidates = max;
+  }
+
+  public int getMaxCandidates() {
+    return maxCandidates;
+  }
+
+  /**
+   * Returns the number of inputs which exceeded the maximum number of fragments.
+   */
+  public long getExceededCount() {
+    return exceeded.get();
+  }
+
     @SuppressWarnings("unused")
 	public List<List<AnalysisOutput>> analyze(String inputText) throws MorphException {
         int[] nounPos = new int[inputText.length()];
@@ -49,6 +72,7 @@ public class WordSegmentAnalyzer {
         int[] oneJosa = new int[inputText.length()];
         List<String> segList = splitByNoun(inputText, nounPos,oneJosa);
         List<List<AnalysisOutput>> result = new ArrayList<List<AnalysisOutput>>();
+        WorkBudget budget = new WorkBudget(maxCandidates);
         
         int offset = 0;
         for(int i=0;i<segList.size();i++) {
@@ -56,10 +80,11 @@ public class WordSegmentAnalyzer {
         	if(length==1) return Collections.EMPTY_LIST;
         	
         	boolean containOneJosa = isContainOneJosa(offset, length,oneJosa);
-            analyze(segList.get(i), result, containOneJosa);
+            analyze(segList.get(i), result, containOneJosa, budget);
             offset += length;
         }
 
+        if(budget.isExceeded()) exceeded.incrementAndGet();
         return result;
     }
 
@@ -77,17 +102,11 @@ public class WordSegmentAnalyzer {
      * @return
      */
     public int findLongestNoun(int start, String inputText) throws MorphException {
-        StringBuffer sb = new StringBuffer();
-        sb.append(inputText.charAt(start));
-
         int lastIndex = -1;
-        for(int i=start+1;i<inputText.length();i++) {
-            sb.append(inputText.charAt(i));
-            if(!DictionaryUtil.findWithPrefix(sb.toString()).hasNext()) {
-                return lastIndex;
-            }
-            if(DictionaryUtil.getAllNoun(sb.toString())!=null) {
-                lastIndex = i;
+        for(WordEntry entry : DictionaryUtil.commonPrefixSearch(inputText, start, inputText.length())) {
+            int length = entry.getWord().length();
+            if(length>1 && DictionaryUtil.allNoun(entry)!=null) {
+                lastIndex = start+length-1;
             }
         }
         return lastIndex;
@@ -143,8 +162,18 @@ public class WordSegmentAnalyzer {
  * @throws MorphException 
    */
   public void analyze(String inputText, List<List<AnalysisOutput>> result, boolean containOneJosa) throws MorphException {
+    WorkBudget budget = new WorkBudget(maxCandidates);
+    analyze(inputText, result, containOneJosa, budget);
+    if(budget.isExceeded()) exceeded.incrementAndGet();
+  }
 
-    List<WordListCandidate> candiateList = new ArrayList<WordListCandidate>();
+  private void analyze(String inputText, List<List<AnalysisOutput>> result, boolean containOneJosa,
+      WorkBudget budget) throws MorphException {
+
+    if(!budget.spend(1)) {
+      analyzeLongestMatch(inputText, result);
+      return;
+    }
 
     List<AnalysisOutput> aoList = morphAnal.analyze(inputText);
     if(aoList.get(0).getScore()==AnalysisOutput.SCORE_CORRECT && !containOneJosa) { // valid morpheme
@@ -152,204 +181,45 @@ public class WordSegmentAnalyzer {
         return;
     }
 
-      int length = inputText.length();
-    // add last character as the first candidate
-    WordListCandidate listCandidate = new WordListCandidate(
-        morphAnal.analyze(inputText.substring(length-1,length)));
-    
-    candiateList.add(listCandidate);
-    
-    Map<String,List<AnalysisOutput>> analyzedSet = new HashMap<String,List<AnalysisOutput>>();
-    
-    // from last position, check whether if each position can be a dividing point.
-    for(int start=inputText.length()-2;start >=0 ; start--) {
-      
-      String thisChar = Character.toString(inputText.charAt(start));
-      List<WordListCandidate> newCandidates = null;
-      
-        // newly created candidates
-        newCandidates = new ArrayList<WordListCandidate>();
-        
-        for(WordListCandidate candidate : candiateList) {
-          
-          String fragment = thisChar + candidate.getFirstFragment();
-          // build the position key with the start position and the end position
-          String posKey = new StringBuffer()
-              .append(start)
-              .append(",")
-              .append(start+candidate.getFirstFragment().length())
-              .toString();
-                    
-          WordListCandidate newCandidate = candidate.newCopy();
-          List<AnalysisOutput> outputs = analyzedSet.get(posKey);
-
-          // check whether if already analyzed.
-          if(outputs == null) {
-            outputs = morphAnal.analyze(fragment);
-            newCandidate.replaceFirst(outputs);
-            analyzedSet.put(posKey, outputs);
-          } else {
-            newCandidate.replaceFirst(outputs);
-          }
-          
-          newCandidates.add(newCandidate);
-        }
-      
-      List<AnalysisOutput> outputs = morphAnal.analyze(thisChar);
-
-      String posKey = new StringBuffer()
-          .append(start)
-          .append(",")
-          .append(start+1)
-          .toString();
-
-      analyzedSet.put(posKey, outputs);
-      
-      for(WordListCandidate candidate : candiateList) {
-        candidate.addWord(outputs);
-      }      
-      
-      if(newCandidates!=null) candiateList.addAll(newCandidates);
-      if(candiateList.size()>=maxCandidate) {
-          Collections.sort(candiateList, new WordListComparator());
-          removeLast(candiateList,adjustNoOfCandidate);
-      }
-     
-    }
-    
-     Collections.sort(candiateList, new WordListComparator());
-
-    for(WordListCandidate candidate : candiateList) {
-      
-      if(candiateList.indexOf(candidate)!=candiateList.size()-1 && 
-    	   hasConsecutiveOneWord(candidate))
-        continue;
-      
-      for(List<AnalysisOutput> outputs : candidate.getWordList()) {
-        result.add(outputs);
-      }      
-      break;
-    }
-    
-  }
-  
-  private boolean hasConsecutiveOneWord(WordListCandidate candidate) {
-	    
-    int size = candidate.getWordList().size();
-    for(int i=1;i<size;i++) {
-      List<AnalysisOutput> outputs1 = candidate.getWordList().get(i-1);
-      List<AnalysisOutput> outputs2 = candidate.getWordList().get(i);
-      if(outputs1.get(0).getStem().length()==1 
-          && outputs2.get(0).getStem().length()==1)
-        return true;
-    }
-    
-    return false;
-  }
-  
-  private int validation(List<WordListCandidate> candiateList, String thisChar, 
-      int start, String inputText) {
-    
-    int newStart = -1;
-    AnalysisOutput dividedOutput = null;
-    
-    boolean lastPos = true;
-    for(int i=candiateList.size()-1; i>=0;i--) {
-      
-      WordListCandidate candidate = candiateList.get(i);
-      AnalysisOutput output = candidate.getWordList().get(0).get(0);
-      
-      int tempStart = validWord(output, start, inputText, lastPos);
-      lastPos = false;
-      
-      if(tempStart<=start) {
-        newStart = tempStart;
-        dividedOutput = output;
-        break;
-      }     
-    }
-    
-    // if here is a dividing point.
-    if(newStart==start) 
-      removeInvalidCandidate(candiateList, dividedOutput);
-    
-    return newStart;
-  }
-  
-  
-  /**
-   * 
-   * @param candiateList  all candidate list
-   * @param dividedOutput the dividing analysis output
-   */
-  private void removeInvalidCandidate(List<WordListCandidate> candiateList, AnalysisOutput dividedOutput) {
-    
-    List<WordListCandidate> removes = new ArrayList<WordListCandidate>();
-    for(int i=0;i<candiateList.size();i++) {
-      
-      WordListCandidate candidate = candiateList.get(i);
-      AnalysisOutput output = candidate.getWordList().get(0).get(0);
- 
-      if(!output.getSource().equals(dividedOutput.getSource()) &&
-          !includeNoun(candidate, dividedOutput, i)) 
-        removes.add(candidate);        
+    // find the best segmentation on the lattice of the fragments
+    WordLattice lattice = new WordLattice(morphAnal, inputText, aoList, budget);
+    if(budget.isExceeded()) {
+      analyzeLongestMatch(inputText, result);
+      return;
     }
+    result.addAll(lattice.bestPath());
     
-    candiateList.removeAll(removes);
   }
   
   /**
-   * when the fragment can be analyzed as a verb, check whether if noun is included in the fragment.
-   * prevent from being divided such as "전복사고==>전^복사고"
-   * @param candidate all candidate list
-   * @param dividedOutput  this analysis output
-   * @return  check result
+   * segment the input into the longest nouns from the front, when the budget is exceeded.
+   * the characters between the nouns are added as unknown nouns.
    */
-  private boolean includeNoun(WordListCandidate candidate, AnalysisOutput dividedOutput, int pos) {
-    
-    if(candidate.getWordList().size()>1) {
-      AnalysisOutput nextOutput = candidate.getWordList().get(1).get(0);
-      if(nextOutput.getSource().length()>1 &&
-          nextOutput.getPatn() == PatternConstants.PTN_N 
-          && nextOutput.getScore()==AnalysisOutput.SCORE_CORRECT)
-        return true;
-    }
-    
-    return false;
-  }
-  
-  /**
-   * return the start position of the longest valid noun before the start position
-   * @param output  analysis output
-   * @param start start position
-   * @param inputText input text
-   * @param isLast  whether if this is the last word.
-   * @return  the start position of the longest valid noun
-   */
-  private int validWord(AnalysisOutput output, int start, String inputText, boolean isLast) {
-    
-    int newStart = -1;
-    if(output.getScore()!=AnalysisOutput.SCORE_CORRECT || 
-        start==0 || output.getSource().length()<2) return newStart;
-    
-    if(!isLast && output.getJosa()==null && output.getEomi()==null) return newStart;
-    
-    if(output.getScore()==AnalysisOutput.SCORE_CORRECT)  newStart = start;
-    
-    // the word with greater than 6 length doesn't exist
-    int minPos = start - 6;
-    if(minPos<0) minPos = 0;
-    
-    for(int i=start-1; i>=minPos; i--) {
-      String word = inputText.substring(i,start) + output.getStem();
-      if(DictionaryUtil.getWord(word)!=null) {
-        newStart = i;
+  private void analyzeLongestMatch(String inputText, List<List<AnalysisOutput>> result) throws MorphException {
+    int unknown = 0;
+    for(int i=0;i<inputText.length();) {
+      int lastIndex = findLongestNoun(i, inputText);
+      if(lastIndex==-1) {
+        i++;
+        continue;
       }
+      if(unknown<i) result.add(nounOutput(inputText.substring(unknown, i), AnalysisOutput.SCORE_ANALYSIS));
+      result.add(nounOutput(inputText.substring(i, lastIndex+1), AnalysisOutput.SCORE_CORRECT));
+      i = lastIndex+1;
+      unknown = i;
     }
-    
-    return newStart;
+    if(unknown<inputText.length()) result.add(nounOutput(inputText.substring(unknown), AnalysisOutput.SCORE_ANALYSIS));
   }
 
+  private List<AnalysisOutput> nounOutput(String word, int score) {
+    AnalysisOutput output = new AnalysisOutput(word, null, null, PatternConstants.PTN_N, score);
+    output.setSource(word);
+    output.setPos(PatternConstants.POS_NOUN);
+    List<AnalysisOutput> outputs = new ArrayList<AnalysisOutput>();
+    outputs.add(output);
+    return outputs;
+  }
+  
   /**
    * calculate the score which is the worst score of the derived word scores
    * @param list  input
@@ -363,17 +233,4 @@ public class WordSegmentAnalyzer {
     return score;
   }
   
-  private void removeLast(List<WordListCandidate> list, int start) {
-  	List<WordListCandidate> removed = new ArrayList<WordListCandidate>();
-  	for(int i=start;i<list.size();i++) {
-  		removed.add(list.get(i));
-  	}
-  	
-  	for(Object o : removed) {
-  		list.remove(o);
-  	}
-  	
-  	removed=null;
-  }
-  
 }
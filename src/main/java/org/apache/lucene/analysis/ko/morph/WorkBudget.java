@@ -0,0 +1,48 @@
+package org.apache.lucene.analysis.ko.morph;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * 한 번의 분석에 허용하는 작업량.
+ * <p>
+ *
+ * Counts the units of work, such as dictionary probes or analyzed fragments,
+ * spent by one call of an analyzer. A limit of 0 or less means no limit.
+ */
+final class WorkBudget {
+
+  private final int limit;
+
+  private int spent;
+
+  WorkBudget(int limit) {
+    this.limit = limit;
+  }
+
+  /**
+   * Spends the units and returns false if the limit is exceeded.
+   */
+  boolean spend(int units) {
+    spent += units;
+    return !isExceeded();
+  }
+
+  boolean isExceeded() {
+    return limit>0 && spent>limit;
+  }
+}
@@ -25,9 +25,7 @@ import org.apache.lucene.analysis.ko.morph.AnalysisOutput;
 import org.apache.lucene.analysis.ko.morph.MorphException;
 import org.apache.lucene.analysis.ko.morph.PatternConstants;
 import org.apache.lucene.analysis.ko.utils.ConstraintUtil;
-import org.apache.lucene.analysis.ko.utils.FileUtil;
-import org.apache.lucene.analysis.ko.utils.KoreanEnv;
-import org.apache.lucene.analysis.ko.utils.Trie;
+import org.apache.lucene.analysis.ko.utils.Dictionary;
 
 /**
  * 여러개의 형태소분석 결과 중에 최적의 것을 선택한다.
@@ -35,10 +33,6 @@ import org.apache.lucene.analysis.ko.utils.Trie;
  */
 public class Tagger {
     
-  private static Trie<String, String[]> occurrences;
-  
-  private static final String tagDicLoc = "tagger.dic";
-  
   private static final String NILL = "NILL";
   
   private static final String NOPATN = "0";
@@ -262,41 +256,11 @@ public class Tagger {
     return false;    
   }
 
-  @SuppressWarnings("unchecked")
-  public static synchronized Iterator<String[]> getGR(String prefix) throws MorphException {
-
-    if(occurrences==null) loadTaggerDic();
-
-    return occurrences.getPrefixedBy(prefix);
-  }
-  
-  private static synchronized void loadTaggerDic() throws MorphException {
-    
-    occurrences = new Trie<String, String[]>(true);
-    
-    try {
-      
-      List<String> strs = FileUtil.readLines(KoreanEnv.getInstance().getValue(tagDicLoc), "UTF-8");
-      
-      for(String str : strs) {
-        if(str==null) continue;
-        str = str.trim();
-        String[] syls = str.split("[:]+");
-        if(syls.length!=4) continue;
-        
-        String key = null;        
-        if("F".equals(syls[0])) key = syls[2].substring(0,syls[2].lastIndexOf("/")+1) + syls[1].substring(0,syls[1].lastIndexOf("/"));
-        else key = syls[1].substring(0,syls[1].lastIndexOf("/")+1) + syls[2].substring(0,syls[2].lastIndexOf("/"));
-
-        final String joined = syls[1] + "/" + syls[2] + "/" + syls[3];
-        String[] patns = joined.split("[/]+");
-        
-        occurrences.add(syls[0]+key, patns);
-        
-      }      
-      
-    } catch (Exception e) {
-      throw new MorphException("Fail to read the tagger dictionary.("+tagDicLoc+")\n"+e.getMessage());
-    }
+  /**
+   * Returns the co-occurrence rules whose keys start with the prefix, which are
+   * loaded with the dictionary, see {@link Dictionary#getOccurrences(String)}.
+   */
+  public static Iterator<String[]> getGR(String prefix) throws MorphException {
+    return Dictionary.inUse().getOccurrences(prefix);
   }
 }
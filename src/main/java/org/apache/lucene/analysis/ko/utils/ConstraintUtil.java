@@ -106,8 +106,8 @@ public class ConstraintUtil {
     
     if(eomiPnouns.get(eomi)!=null) return true;
     
-    char[] chrs = MorphUtil.decompose(eomi.charAt(eomi.length()-1));
-    if(chrs.length==3  && eomiPnouns.get(Character.toString(chrs[2]))!=null) return true;
+    char jong = MorphUtil.jongseongOf(eomi.charAt(eomi.length()-1));
+    if(jong!='\0'  && eomiPnouns.get(Character.toString(jong))!=null) return true;
     
     return true;
   }
@@ -0,0 +1,529 @@
+package org.apache.lucene.analysis.ko.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.apache.lucene.analysis.ko.morph.MorphException;
+import org.apache.lucene.analysis.ko.morph.WordEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 형태소 분석에 사용하는 모든 사전.
+ * <p>
+ *
+ * A dictionary is loaded completely when it is created (from the
+ * {@link DictionarySnapshot} when there is one, otherwise from the text
+ * dictionaries) and is never modified afterwards, so one instance can be read
+ * by any number of threads without locking. {@link DictionaryUtil},
+ * {@link SyllableUtil} and {@link HanjaUtils} read the default dictionary
+ * returned by {@link #getDefault()}.
+ * <p>
+ *
+ * The default dictionary is replaced by {@link #reload()} or
+ * {@link #reloadIfModified()} when the text dictionaries are changed, and by
+ * {@link DictionaryUtil#addEntry(WordEntry)}. The new one is built beside the
+ * old one and published through one volatile reference, so the analysis never
+ * stops. An analysis reads one dictionary from start to end: the analyzer
+ * passes it to the lookups of its thread by {@link #use(Dictionary)}, so an
+ * analysis which is running when the dictionary is replaced finishes on the
+ * old one.
+ * <p>
+ *
+ * The words of a {@link UserDictionary} are looked up first in the dictionary
+ * returned by {@link #withUserDictionary(UserDictionary)}, which shares all the
+ * rest with this one. Two dictionaries are equal when they look up the same
+ * tries, so the caches keyed by the dictionary are shared by the analyzers
+ * which have the same user dictionary, and by those only.
+ */
+public final class Dictionary {
+
+  private static volatile Dictionary defaultDictionary;
+
+  /**
+   * the dictionary of the analysis running in each thread, see {@link #use(Dictionary)}
+   */
+  private static final ThreadLocal<Dictionary> inUse = new ThreadLocal<Dictionary>();
+
+  private static final List<DoubleArrayTrie<WordEntry>> NO_ENTRIES = Collections.emptyList();
+
+  private final DoubleArrayTrie<WordEntry> words;
+
+  private final Map<String, WordEntry> uncompounds;
+
+  private final Map<String, String> abbreviations;
+
+  private final Map<String, String> cjwords;
+
+  private final Map<String, String> josas;
+
+  private final Map<String, String> eomis;
+
+  private final Map<String, String> prefixs;
+
+  private final Map<String, String> suffixs;
+
+  /**
+   * 조사, 어미를 어절의 끝에서부터 찾기 위해 거꾸로 저장한 trie
+   */
+  private final DoubleArrayTrie<String> reverseJosas;
+
+  private final DoubleArrayTrie<String> reverseEomis;
+
+  private final long[] syllables;
+
+  private final Map<String, char[]> hanja;
+
+  /**
+   * the co-occurrence rules of the tagger, which are only read once they are loaded
+   */
+  private final Trie<String, String[]> occurrences;
+
+  /**
+   * the user dictionary, or null
+   */
+  private final UserDictionary user;
+
+  /**
+   * the tries which the words are looked up in, in order: the user dictionary,
+   * those of the entries added by {@link DictionaryUtil#addEntry(WordEntry)},
+   * the newest first, and finally the words. The added entries are kept in a few tries whose sizes
+   * grow from the newest to the oldest like the digits of a binary counter, so
+   * that an entry is copied into a new trie only log(n) times in all.
+   */
+  private final List<DoubleArrayTrie<WordEntry>> layers;
+
+  /**
+   * the times, lengths and checksums of the text dictionaries this is loaded
+   * from, see {@link #reloadIfModified()}
+   */
+  private final long[] stamps;
+
+  private final int hash;
+
+  private Dictionary(DictionarySnapshot snapshot, List<DoubleArrayTrie<WordEntry>> added) throws MorphException {
+    if(snapshot!=null) {
+      words = snapshot.getDictionary();
+      uncompounds = snapshot.getUncompounds();
+      abbreviations = snapshot.getMap(KoreanEnv.FILE_ABBREV);
+      cjwords = snapshot.getMap(KoreanEnv.FILE_CJ);
+      josas = snapshot.getMap(KoreanEnv.FILE_JOSA);
+      eomis = snapshot.getMap(KoreanEnv.FILE_EOMI);
+      prefixs = snapshot.getMap(KoreanEnv.FILE_PREFIX);
+      suffixs = snapshot.getMap(KoreanEnv.FILE_SUFFIX);
+      syllables = snapshot.getSyllables();
+      hanja = snapshot.getHanja();
+      stamps = snapshot.getStamps();
+    } else {
+      words = DictionaryUtil.readDictionary();
+      uncompounds = DictionaryUtil.readUncompounds();
+      abbreviations = DictionaryUtil.readAbbreviations();
+      cjwords = DictionaryUtil.readCJWords();
+      josas = DictionaryUtil.readFile(KoreanEnv.FILE_JOSA);
+      eomis = DictionaryUtil.readFile(KoreanEnv.FILE_EOMI);
+      prefixs = DictionaryUtil.readFile(KoreanEnv.FILE_PREFIX);
+      suffixs = DictionaryUtil.readFile(KoreanEnv.FILE_SUFFIX);
+      syllables = SyllableUtil.readSyllableFeature();
+      hanja = HanjaUtils.readHanja();
+      stamps = DictionarySnapshot.stamps(null);
+    }
+    occurrences = DictionaryUtil.readOccurrences();
+    reverseJosas = reverse(josas);
+    reverseEomis = reverse(eomis);
+    user = null;
+    layers = layers(null, added, words);
+    hash = layers.hashCode();
+  }
+
+  /**
+   * Creates a dictionary which has the same words as the given one, the added
+   * entries and the user dictionary.
+   */
+  private Dictionary(Dictionary dic, List<DoubleArrayTrie<WordEntry>> added, UserDictionary user) {
+    words = dic.words;
+    uncompounds = dic.uncompounds;
+    abbreviations = dic.abbreviations;
+    cjwords = dic.cjwords;
+    josas = dic.josas;
+    eomis = dic.eomis;
+    prefixs = dic.prefixs;
+    suffixs = dic.suffixs;
+    reverseJosas = dic.reverseJosas;
+    reverseEomis = dic.reverseEomis;
+    syllables = dic.syllables;
+    hanja = dic.hanja;
+    occurrences = dic.occurrences;
+    stamps = dic.stamps;
+    this.user = user;
+    layers = layers(user, added, words);
+    hash = layers.hashCode();
+  }
+
+  private static List<DoubleArrayTrie<WordEntry>> layers(UserDictionary user,
+      List<DoubleArrayTrie<WordEntry>> added, DoubleArrayTrie<WordEntry> words) {
+    List<DoubleArrayTrie<WordEntry>> layers = new ArrayList<DoubleArrayTrie<WordEntry>>(added.size()+2);
+    if(user!=null) layers.add(user.getWords());
+    layers.addAll(added);
+    layers.add(words);
+    return Collections.unmodifiableList(layers);
+  }
+
+  /**
+   * Returns the dictionary shared by the analyzers, loading it on the first call.
+   */
+  public static Dictionary getDefault() throws MorphException {
+    Dictionary dic = defaultDictionary;
+    if(dic==null) {
+      synchronized(Dictionary.class) {
+        dic = defaultDictionary;
+        if(dic==null) {
+          dic = load();
+          defaultDictionary = dic;
+        }
+      }
+    }
+    return dic;
+  }
+
+  /**
+   * Returns the default dictionary, or null if it is not loaded yet.
+   */
+  public static Dictionary current() {
+    return defaultDictionary;
+  }
+
+  /**
+   * Returns the dictionary of the analysis running in the current thread, or
+   * the default dictionary if none is running. The static lookups of
+   * {@link DictionaryUtil}, {@link SyllableUtil} and {@link HanjaUtils} read this one.
+   */
+  public static Dictionary inUse() throws MorphException {
+    Dictionary dic = inUse.get();
+    return dic!=null ? dic : getDefault();
+  }
+
+  /**
+   * Makes the lookups of the current thread read the given dictionary, and
+   * returns the previous one, which must be restored when the analysis is done:
+   * <pre>
+   * Dictionary previous = Dictionary.use(dic);
+   * try {
+   *   ...
+   * } finally {
+   *   Dictionary.use(previous);
+   * }
+   * </pre>
+   * @param dic  the dictionary, or null to read the default dictionary
+   * @return  the previous dictionary, or null if there was none
+   */
+  public static Dictionary use(Dictionary dic) {
+    Dictionary previous = inUse.get();
+    if(dic!=previous) inUse.set(dic);
+    return previous;
+  }
+
+  /**
+   * Reloads the default dictionary from the text dictionaries and replaces it
+   * at once. The analyses keep using the old dictionary until it is replaced.
+   * The snapshot is not used, since it is compiled from the files at build time.
+   * The entries added by {@link DictionaryUtil#addEntry(WordEntry)} are kept, and
+   * the caches of the analysis results drop the results of the old dictionary.
+   * @return the new default dictionary
+   */
+  public static Dictionary reload() throws MorphException {
+    return reload(true);
+  }
+
+  /**
+   * Reloads the default dictionary like {@link #reload()}, dropping the added
+   * entries unless keepAdded is set.
+   */
+  static Dictionary reload(boolean keepAdded) throws MorphException {
+    synchronized(Dictionary.class) {
+      Dictionary old = defaultDictionary;
+      List<DoubleArrayTrie<WordEntry>> added = old==null || !keepAdded ? NO_ENTRIES : old.getAddedEntries();
+      Dictionary dic = new Dictionary((DictionarySnapshot)null, added);
+      defaultDictionary = dic;
+      return dic;
+    }
+  }
+
+  /**
+   * Reloads the default dictionary like {@link #reload()} if a text dictionary
+   * has been changed since it was loaded. It compares the length and the
+   * checksum of each file, reading only the files whose last modified time or
+   * length has changed, and reloads nothing otherwise, so it can be called
+   * periodically to pick up the edited dictionaries, for instance from a
+   * ScheduledExecutorService. The library starts no thread to watch the files.
+   * @return the default dictionary, which is a new one if the files are changed
+   */
+  public static Dictionary reloadIfModified() throws MorphException {
+    Dictionary dic = getDefault();
+    if(!DictionarySnapshot.isModified(dic.stamps)) return dic;
+    return reload();
+  }
+
+  /**
+   * Loads a new dictionary from the files configured in korean.properties.
+   */
+  public static Dictionary load() throws MorphException {
+    return new Dictionary(DictionarySnapshot.load(), NO_ENTRIES);
+  }
+
+  /**
+   * Replaces the default dictionary with one which also has the entry,
+   * see {@link DictionaryUtil#addEntry(WordEntry)}.
+   */
+  static void addEntry(WordEntry entry) throws MorphException {
+    synchronized(Dictionary.class) {
+      defaultDictionary = getDefault().withEntry(entry);
+    }
+  }
+
+  /**
+   * Returns a dictionary which has the words of this one and the entry, which
+   * is looked up first. The entry is put into a new trie together with the
+   * newest added entries, as long as they are not more than the new trie.
+   */
+  Dictionary withEntry(WordEntry entry) {
+    List<DoubleArrayTrie<WordEntry>> added = getAddedEntries();
+    int merged = 0;
+    int size = 1;
+    while(merged<added.size() && added.get(merged).size()<=size) {
+      size += added.get(merged).size();
+      merged++;
+    }
+
+    // the older entries first, so that the newer ones replace them
+    Map<String, WordEntry> entries = new LinkedHashMap<String, WordEntry>();
+    for(int i=merged-1;i>=0;i--) {
+      Iterator<WordEntry> iter = added.get(i).getPrefixedBy("");
+      while(iter.hasNext()) {
+        WordEntry e = iter.next();
+        entries.put(words.canonicalCase(e.getWord()), e);
+      }
+    }
+    entries.put(words.canonicalCase(entry.getWord()), entry);
+
+    List<DoubleArrayTrie<WordEntry>> layers = new ArrayList<DoubleArrayTrie<WordEntry>>();
+    layers.add(new DoubleArrayTrie<WordEntry>(entries, words.isIgnoreCase()));
+    layers.addAll(added.subList(merged, added.size()));
+    return new Dictionary(this, layers, user);
+  }
+
+  /**
+   * Returns a dictionary which has the words of this one and those of the user
+   * dictionary, which are looked up first. It replaces the user dictionary of
+   * this one, if any.
+   * @param user  the user dictionary, or null for none
+   */
+  public Dictionary withUserDictionary(UserDictionary user) {
+    if(user==this.user) return this;
+    return new Dictionary(this, getAddedEntries(), user);
+  }
+
+  /**
+   * Returns the user dictionary, or null if there is none.
+   */
+  public UserDictionary getUserDictionary() {
+    return user;
+  }
+
+  /**
+   * Returns true if the dictionary looks up the same tries as this one.
+   * The tries are compared by identity, and the other tables come with the words.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if(o==this) return true;
+    if(!(o instanceof Dictionary)) return false;
+    Dictionary dic = (Dictionary)o;
+    if(hash!=dic.hash||layers.size()!=dic.layers.size()) return false;
+    for(int i=0;i<layers.size();i++) {
+      if(layers.get(i)!=dic.layers.get(i)) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  /**
+   * Returns the entry of the word, or null if it is not in this dictionary.
+   * The user dictionary and the added entries are looked up before the words.
+   */
+  public WordEntry getWord(String key) {
+    if(layers.size()==1) return words.get(key);
+    for(int i=0;i<layers.size();i++) {
+      WordEntry entry = layers.get(i).get(key);
+      if(entry!=null) return entry;
+    }
+    return null;
+  }
+
+  /**
+   * Appends the entries of the prefixes of text[from..to) to the list in the
+   * order of their length, see {@link DictionaryUtil#commonPrefixSearch(CharSequence, int, int)}.
+   * The tries are walked together in one pass over the text, which stops when
+   * none of them has a word starting with the characters read so far.
+   */
+  public void commonPrefixSearch(CharSequence text, int from, int to, List<WordEntry> found) {
+    if(layers.size()==1) {
+      DoubleArrayTrie<WordEntry> trie = layers.get(0);
+      int s = 0;
+      for(int i=from;i<to;i++) {
+        s = trie.next(s, text.charAt(i));
+        if(s<0) break;
+        WordEntry entry = trie.valueAt(s);
+        if(entry!=null) found.add(entry);
+      }
+      return;
+    }
+
+    int[] states = new int[layers.size()];
+    int alive = states.length;
+    for(int i=from;i<to&&alive>0;i++) {
+      char c = text.charAt(i);
+      WordEntry entry = null;
+      for(int l=0;l<states.length;l++) {
+        if(states[l]<0) continue;
+        DoubleArrayTrie<WordEntry> trie = layers.get(l);
+        states[l] = trie.next(states[l], c);
+        if(states[l]<0) alive--;
+        else if(entry==null) entry = trie.valueAt(states[l]);
+      }
+      if(entry!=null) found.add(entry);
+    }
+  }
+
+  /**
+   * Returns the entries whose words start with the prefix. An added entry hides
+   * the word of the same spelling.
+   */
+  public Iterator<WordEntry> findWithPrefix(String prefix) {
+    if(layers.size()==1) return layers.get(0).getPrefixedBy(prefix);
+
+    Set<String> seen = new HashSet<String>();
+    List<WordEntry> list = new ArrayList<WordEntry>();
+    for(DoubleArrayTrie<WordEntry> trie : layers) {
+      Iterator<WordEntry> iter = trie.getPrefixedBy(prefix);
+      while(iter.hasNext()) {
+        WordEntry entry = iter.next();
+        if(seen.add(trie.canonicalCase(entry.getWord()))) list.add(entry);
+      }
+    }
+    return list.iterator();
+  }
+
+  private static DoubleArrayTrie<String> reverse(Map<String, String> map) {
+    Map<String, String> reversed = new HashMap<String, String>();
+    for(String key : map.keySet()) {
+      reversed.put(new StringBuilder(key).reverse().toString(), key);
+    }
+    return new DoubleArrayTrie<String>(reversed, false);
+  }
+
+  /**
+   * Returns the trie of the words in dictionary.dic, extension.dic and compounds.dic.
+   * It must not be modified.
+   */
+  public DoubleArrayTrie<WordEntry> getWords() {
+    return words;
+  }
+
+  /**
+   * Returns the tries of the entries added by {@link DictionaryUtil#addEntry(WordEntry)},
+   * the newest first.
+   */
+  List<DoubleArrayTrie<WordEntry>> getAddedEntries() {
+    return layers.subList(user==null ? 0 : 1, layers.size()-1);
+  }
+
+  public WordEntry getUncompound(String key) {
+    return uncompounds.get(key);
+  }
+
+  public String getAbbreviation(String key) {
+    return abbreviations.get(key);
+  }
+
+  public String getCJWord(String key) {
+    return cjwords.get(key);
+  }
+
+  public String getJosa(String key) {
+    return josas.get(key);
+  }
+
+  public String getEomi(String key) {
+    return eomis.get(key);
+  }
+
+  public boolean existPrefix(String key) {
+    return prefixs.get(key)!=null;
+  }
+
+  public boolean existSuffix(String key) {
+    return suffixs.get(key)!=null;
+  }
+
+  /**
+   * Returns the josas as a trie of reversed words, see {@link DictionaryUtil#getReverseJosa()}.
+   */
+  public DoubleArrayTrie<String> getReverseJosa() {
+    return reverseJosas;
+  }
+
+  public DoubleArrayTrie<String> getReverseEomi() {
+    return reverseEomis;
+  }
+
+  /**
+   * Returns the feature bits of the syllable, see {@link SyllableUtil#getFeatureBits(char)}.
+   */
+  public long getSyllableFeature(char syl) {
+    int idx = syl - 0xAC00;
+    if(idx<0||idx>=syllables.length) idx = syllables.length-1;
+    return syllables[idx];
+  }
+
+  /**
+   * Returns the co-occurrence rules of the tagger whose keys start with the prefix,
+   * see {@link org.apache.lucene.analysis.ko.tagging.Tagger#getGR(String)}.
+   */
+  @SuppressWarnings("unchecked")
+  public Iterator<String[]> getOccurrences(String prefix) {
+    return occurrences.getPrefixedBy(prefix);
+  }
+
+  /**
+   * Returns the hangul readings of the hanja, or null if unknown.
+   */
+  public char[] getHangul(char hanja) {
+    return this.hanja.get(String.valueOf(hanja));
+  }
+}
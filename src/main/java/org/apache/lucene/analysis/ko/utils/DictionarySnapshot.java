@@ -0,0 +1,518 @@
+package org.apache.lucene.analysis.ko.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.apache.lucene.analysis.ko.morph.CompoundEntry;
+import org.apache.lucene.analysis.ko.morph.MorphException;
+import org.apache.lucene.analysis.ko.morph.PatternConstants;
+import org.apache.lucene.analysis.ko.morph.WordEntry;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+/**
+ * 사전 파일들을 미리 컴파일한 바이너리 스냅샷.
+ * <p>
+ *
+ * The text dictionaries (dictionary, extension, compounds, abbreviation,
+ * uncompounds, cj, josa, eomi, prefix, suffix, syllable and hanja) are parsed
+ * once at build time by {@link #main(String[])} and written into one
+ * versioned file. At runtime the file is read with a single bulk read and the
+ * double array trie, the word entries and the maps are restored directly from
+ * it, without splitting lines or rebuilding the trie.
+ * <p>
+ *
+ * The snapshot is looked up in the classpath at the path configured by
+ * {@link KoreanEnv#FILE_SNAPSHOT}. It is ignored, and the text dictionaries
+ * are read instead, when it is missing, when its version differs, when the
+ * dictionary paths configured in korean.properties are not the ones the
+ * snapshot was compiled from or when a text dictionary has been edited since.
+ * The snapshot records the last modified time, the length and the CRC32 of each
+ * text dictionary for this, so an edited file is never shadowed by a stale
+ * snapshot. A file is only read to compute its CRC32 when its time or its
+ * length differs from the recorded ones.
+ */
+public class DictionarySnapshot {
+
+  /** "ARDC" */
+  private static final int MAGIC = 0x41524443;
+
+  /**
+   * increase this whenever the layout of the file or of the stored entries changes.
+   */
+  public static final int VERSION = 4;
+
+  /**
+   * the dictionary files a snapshot is made from, in the order they are written.
+   */
+  private static final String[] SOURCES = new String[] {
+    KoreanEnv.FILE_DICTIONARY, KoreanEnv.FILE_EXTENSION, KoreanEnv.FILE_COMPOUNDS,
+    KoreanEnv.FILE_ABBREV, KoreanEnv.FILE_UNCOMPOUNDS, KoreanEnv.FILE_CJ,
+    KoreanEnv.FILE_JOSA, KoreanEnv.FILE_EOMI, KoreanEnv.FILE_PREFIX, KoreanEnv.FILE_SUFFIX,
+    KoreanEnv.FILE_SYLLABLE_FEATURE
+  };
+
+  /**
+   * the keys of the simple maps, in the order they are written.
+   * abbreviation and cj are split by ':', the others are read by {@link DictionaryUtil#readFile(String)}.
+   */
+  private static final String[] MAPS = new String[] {
+    KoreanEnv.FILE_ABBREV, KoreanEnv.FILE_CJ,
+    KoreanEnv.FILE_JOSA, KoreanEnv.FILE_EOMI, KoreanEnv.FILE_PREFIX, KoreanEnv.FILE_SUFFIX
+  };
+
+  private DoubleArrayTrie<WordEntry> dictionary;
+
+  private HashMap<String, WordEntry> uncompounds;
+
+  private Map<String, HashMap<String, String>> maps = new HashMap<String, HashMap<String, String>>();
+
+  private long[] syllables;
+
+  private Map<String, char[]> hanja;
+
+  private long[] stamps;
+
+  private DictionarySnapshot() {
+  }
+
+  /**
+   * Reads the snapshot in the classpath, or returns null if there is none which can be used.
+   */
+  public static DictionarySnapshot load() throws MorphException {
+    String path = KoreanEnv.getInstance().getValue(KoreanEnv.FILE_SNAPSHOT);
+    byte[] bytes = null;
+    if(path!=null&&path.trim().length()>0) {
+      try {
+        bytes = readResource(path.trim());
+      } catch (IOException e) {
+        throw new MorphException("Failure while reading the dictionary snapshot "+path, e);
+      }
+    }
+
+    return bytes!=null ? read(ByteBuffer.wrap(bytes)) : null;
+  }
+
+  public DoubleArrayTrie<WordEntry> getDictionary() {
+    return dictionary;
+  }
+
+  public HashMap<String, WordEntry> getUncompounds() {
+    return uncompounds;
+  }
+
+  /**
+   * Returns the map which is read from the given dictionary (one of the KoreanEnv.FILE_* keys).
+   */
+  public HashMap<String, String> getMap(String dic) {
+    return maps.get(dic);
+  }
+
+  public long[] getSyllables() {
+    return syllables;
+  }
+
+  public Map<String, char[]> getHanja() {
+    return hanja;
+  }
+
+  /**
+   * Returns the stamps of the text dictionaries, see {@link #stamps(long[])}.
+   */
+  public long[] getStamps() {
+    return stamps;
+  }
+
+  /**
+   * Parses the text dictionaries and writes the snapshot.
+   */
+  public static void write(OutputStream out) throws MorphException, IOException {
+    KoreanEnv env = KoreanEnv.getInstance();
+    Records records = new Records();
+
+    for(String source : SOURCES) records.putString(env.getValue(source));
+    records.putString(HanjaUtils.FILE_HANJA);
+    for(long stamp : stamps(null)) records.putLong(stamp);
+
+    DoubleArrayTrie<WordEntry> trie = DictionaryUtil.readDictionary();
+    records.putInt(trie.isIgnoreCase() ? 1 : 0);
+    records.putChars(trie.alphabet());
+    Object[] values = trie.values();
+    records.putInt(values.length);
+    for(Object v : values) records.putEntry((WordEntry)v);
+
+    HashMap<String, WordEntry> uncompounds = DictionaryUtil.readUncompounds();
+    records.putInt(uncompounds.size());
+    for(WordEntry entry : uncompounds.values()) records.putEntry(entry);
+
+    records.putMap(DictionaryUtil.readAbbreviations());
+    records.putMap(DictionaryUtil.readCJWords());
+    for(int i=2;i<MAPS.length;i++) records.putMap(DictionaryUtil.readFile(MAPS[i]));
+
+    long[] syllables = SyllableUtil.readSyllableFeature();
+    records.putInt(syllables.length);
+    for(long feature : syllables) records.putLong(feature);
+
+    Map<String, char[]> hanja = HanjaUtils.readHanja();
+    records.putInt(hanja.size());
+    for(Map.Entry<String, char[]> e : hanja.entrySet()) {
+      records.putString(e.getKey());
+      records.putChars(e.getValue());
+    }
+
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    writeInts(data, records.numbers, records.numberCount);
+    data.writeInt(records.pool.length());
+    data.writeChars(records.pool.toString());
+    writeInts(data, trie.base(), trie.base().length);
+    writeInts(data, trie.check(), trie.check().length);
+    data.flush();
+  }
+
+  private static void writeInts(DataOutputStream out, int[] ints, int length) throws IOException {
+    out.writeInt(length);
+    for(int i=0;i<length;i++) out.writeInt(ints[i]);
+  }
+
+  static DictionarySnapshot read(ByteBuffer in) throws MorphException {
+    try {
+      if(in.getInt()!=MAGIC) throw new MorphException("not a dictionary snapshot");
+      if(in.getInt()!=VERSION) return null;
+
+      Records records = new Records();
+      records.numbers = readInts(in);
+      records.chars = new char[in.getInt()];
+      in.asCharBuffer().get(records.chars);
+      in.position(in.position()+records.chars.length*2);
+
+      KoreanEnv env = KoreanEnv.getInstance();
+      for(String source : SOURCES) {
+        if(!records.getString().equals(env.getValue(source))) return null;
+      }
+      if(!records.getString().equals(HanjaUtils.FILE_HANJA)) return null;
+
+      // a file which is not in the classpath can not be compared, the snapshot is used then.
+      long[] recorded = new long[(SOURCES.length+1)*2];
+      for(int i=0;i<recorded.length;i++) recorded[i] = records.getLong();
+      long[] stamps = stamps(recorded);
+      for(int i=1;i<stamps.length;i+=2) {
+        if(stamps[i]!=-1&&stamps[i]!=recorded[i]) return null;
+      }
+
+      DictionarySnapshot snapshot = new DictionarySnapshot();
+      snapshot.stamps = stamps;
+
+      boolean ignoreCase = records.getInt()!=0;
+      char[] alphabet = records.getChars();
+      Object[] values = new Object[records.getInt()];
+      for(int i=0;i<values.length;i++) values[i] = records.getEntry();
+      int[] base = readInts(in);
+      int[] check = readInts(in);
+      snapshot.dictionary = new DoubleArrayTrie<WordEntry>(alphabet, base, check, values, ignoreCase);
+
+      int size = records.getInt();
+      snapshot.uncompounds = new HashMap<String, WordEntry>(size*4/3+1);
+      for(int i=0;i<size;i++) {
+        WordEntry entry = records.getEntry();
+        snapshot.uncompounds.put(entry.getWord(), entry);
+      }
+
+      for(String dic : MAPS) {
+        size = records.getInt();
+        HashMap<String, String> map = new HashMap<String, String>(size*4/3+1);
+        for(int i=0;i<size;i++) map.put(records.getString(), records.getString());
+        snapshot.maps.put(dic, map);
+      }
+
+      size = records.getInt();
+      snapshot.syllables = new long[size];
+      for(int i=0;i<size;i++) snapshot.syllables[i] = records.getLong();
+
+      size = records.getInt();
+      snapshot.hanja = new HashMap<String, char[]>(size*4/3+1);
+      for(int i=0;i<size;i++) snapshot.hanja.put(records.getString(), records.getChars());
+
+      return snapshot;
+    } catch (BufferUnderflowException e) {
+      throw new MorphException("the dictionary snapshot is truncated", e);
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new MorphException("the dictionary snapshot is broken", e);
+    }
+  }
+
+  private static int[] readInts(ByteBuffer in) {
+    int[] ints = new int[in.getInt()];
+    in.asIntBuffer().get(ints);
+    in.position(in.position()+ints.length*4);
+    return ints;
+  }
+
+  /**
+   * The contents of a snapshot except the trie arrays, kept as one int array
+   * (lengths, counts and offsets) and one character pool, so that both can be
+   * read with a bulk copy and the strings are cut out of the pool.
+   */
+  private static class Records {
+
+    int[] numbers = new int[1024];
+
+    int numberCount;
+
+    StringBuilder pool = new StringBuilder();
+
+    char[] chars;
+
+    int numberPos;
+
+    int charPos;
+
+    // the words of the compound nouns read so far, equal ones are shared
+    Map<CompoundEntry, CompoundEntry> interned = new HashMap<CompoundEntry, CompoundEntry>();
+
+    void putInt(int v) {
+      if(numberCount==numbers.length) numbers = Arrays.copyOf(numbers, numbers.length*2);
+      numbers[numberCount++] = v;
+    }
+
+    void putLong(long v) {
+      putInt((int)(v>>>32));
+      putInt((int)v);
+    }
+
+    void putString(String s) {
+      putInt(s.length());
+      pool.append(s);
+    }
+
+    void putChars(char[] cs) {
+      putInt(cs.length);
+      pool.append(cs);
+    }
+
+    void putMap(HashMap<String, String> map) {
+      putInt(map.size());
+      for(Map.Entry<String, String> e : map.entrySet()) {
+        putString(e.getKey());
+        putString(e.getValue());
+      }
+    }
+
+    void putEntry(WordEntry entry) {
+      putString(entry.getWord());
+      putChars(entry.getFeatures());
+      List<CompoundEntry> compounds = entry.getCompounds();
+      putInt(compounds.size());
+      for(CompoundEntry ce : compounds) {
+        putString(ce.getWord());
+        putInt(ce.getOffset());
+      }
+    }
+
+    int getInt() {
+      return numbers[numberPos++];
+    }
+
+    long getLong() {
+      long high = getInt();
+      return (high<<32) | (getInt()&0xFFFFFFFFL);
+    }
+
+    String getString() {
+      int length = getInt();
+      String s = new String(chars, charPos, length);
+      charPos += length;
+      return s;
+    }
+
+    char[] getChars() {
+      int length = getInt();
+      char[] cs = Arrays.copyOfRange(chars, charPos, charPos+length);
+      charPos += length;
+      return cs;
+    }
+
+    WordEntry getEntry() {
+      WordEntry entry = new WordEntry(getString());
+      int length = getInt();
+      entry.setFeatures(chars, charPos, length);
+      charPos += length;
+      int size = getInt();
+      if(size>0) {
+        List<CompoundEntry> compounds = new ArrayList<CompoundEntry>(size);
+        for(int i=0;i<size;i++) {
+          CompoundEntry ce = new CompoundEntry(getString(), getInt(), true, PatternConstants.POS_NOUN, true);
+          compounds.add(ce.intern(interned));
+        }
+        entry.setCompounds(compounds);
+      }
+      return entry;
+    }
+  }
+
+  /**
+   * Returns the length of the dictionary file in the high 32 bits and its CRC32
+   * in the low 32 bits, or -1 if the file is not in the classpath. A file in a
+   * jar is not read, since the jar entry records both.
+   */
+  static long checksum(String path) throws IOException {
+    URL url = resource(path);
+    return url!=null ? checksum(url) : -1;
+  }
+
+  private static URL resource(String path) {
+    URL url = FileUtil.class.getClassLoader().getResource(path);
+    if(url==null) url = ClassLoader.getSystemResource(path);
+    return url;
+  }
+
+  private static long checksum(URL url) throws IOException {
+    URLConnection conn = url.openConnection();
+    if(conn instanceof JarURLConnection) {
+      JarEntry entry = ((JarURLConnection)conn).getJarEntry();
+      if(entry.getSize()>=0&&entry.getCrc()>=0) return (entry.getSize()<<32) | entry.getCrc();
+    }
+
+    InputStream in = conn.getInputStream();
+    try {
+      CRC32 crc = new CRC32();
+      byte[] buffer = new byte[1<<16];
+      long length = 0;
+      int n;
+      while((n=in.read(buffer))!=-1) {
+        crc.update(buffer, 0, n);
+        length += n;
+      }
+      return (length<<32) | crc.getValue();
+    } finally {
+      FileUtil.closeQuietly(in);
+    }
+  }
+
+  /**
+   * Returns the last modified time and the {@link #checksum(String)} of each text
+   * dictionary a snapshot is made from, two values per file. A file in the file
+   * system whose time and length are the ones in the given stamps is not read
+   * and keeps its checksum, so only an edited file is read to compute its CRC32.
+   * The time of a file which is not in the classpath is -1, and it is 0 when it
+   * is unknown, for instance in a jar whose entries record the CRC32 anyway.
+   *
+   * @param previous  the stamps taken before, or null to read every file
+   */
+  static long[] stamps(long[] previous) throws MorphException {
+    KoreanEnv env = KoreanEnv.getInstance();
+    long[] stamps = new long[(SOURCES.length+1)*2];
+    try {
+      for(int i=0;i<=SOURCES.length;i++) {
+        String path = i<SOURCES.length ? env.getValue(SOURCES[i]) : HanjaUtils.FILE_HANJA;
+        stamp(path, previous, stamps, i*2);
+      }
+    } catch (IOException e) {
+      throw new MorphException("Failure while reading the dictionaries", e);
+    }
+    return stamps;
+  }
+
+  private static void stamp(String path, long[] previous, long[] stamps, int i) throws IOException {
+    URL url = resource(path);
+    if(url==null) {
+      stamps[i] = -1;
+      stamps[i+1] = -1;
+      return;
+    }
+
+    File file = FileUtil.toFile(url);
+    stamps[i] = file!=null ? file.lastModified() : 0;
+    if(previous!=null&&stamps[i]!=0&&previous[i]==stamps[i]
+        &&previous[i+1]!=-1&&(previous[i+1]>>>32)==file.length()) {
+      stamps[i+1] = previous[i+1];
+    } else {
+      stamps[i+1] = checksum(url);
+    }
+  }
+
+  /**
+   * Returns true if the checksum of a text dictionary differs from the one in the
+   * given {@link #stamps(long[])}.
+   */
+  static boolean isModified(long[] stamps) throws MorphException {
+    long[] current = stamps(stamps);
+    for(int i=1;i<current.length;i+=2) {
+      if(current[i]!=stamps[i]) return true;
+    }
+    return false;
+  }
+
+  private static byte[] readResource(String path) throws IOException {
+    InputStream in = FileUtil.class.getClassLoader().getResourceAsStream(path);
+    if(in==null) in = ClassLoader.getSystemResourceAsStream(path);
+    if(in==null) return null;
+
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(1<<20);
+      byte[] buffer = new byte[1<<16];
+      int n;
+      while((n=in.read(buffer))!=-1) out.write(buffer, 0, n);
+      return out.toByteArray();
+    } finally {
+      FileUtil.closeQuietly(in);
+    }
+  }
+
+  /**
+   * Compiles the text dictionaries into a snapshot file. The build runs this
+   * to put the snapshot next to the dictionaries in the class output.
+   *
+   * @param args  the snapshot file to write
+   */
+  public static void main(String[] args) throws Exception {
+    if(args.length!=1) {
+      System.err.println("usage: DictionarySnapshot <output file>");
+      System.exit(1);
+    }
+
+    File file = new File(args[0]);
+    if(file.getParentFile()!=null) file.getParentFile().mkdirs();
+
+    OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1<<16);
+    try {
+      write(out);
+    } finally {
+      out.close();
+    }
+  }
+}
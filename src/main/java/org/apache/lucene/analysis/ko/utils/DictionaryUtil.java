@@ -19,123 +19,180 @@ package org.apache.lucene.analysis.ko.utils;
 
 import org.apache.lucene.analysis.ko.morph.CompoundEntry;
 import org.apache.lucene.analysis.ko.morph.MorphException;
+import org.apache.lucene.analysis.ko.morph.PatternConstants;
 import org.apache.lucene.analysis.ko.morph.WordEntry;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DictionaryUtil {
   
-  private static Trie<String,WordEntry> dictionary;
-  
-  private static HashMap<String, String> josas;
-  
-  private static HashMap<String, String> eomis;
-  
-  private static HashMap<String, String> prefixs;
-  
-  private static HashMap<String, String> suffixs;
-  
-  private static HashMap<String,WordEntry> uncompounds;
-  
-  private static HashMap<String, String> cjwords;
+  /**
+   * 사전을 로드한다. the default dictionary is reloaded from the text dictionaries,
+   * see {@link Dictionary#reload()}, and the entries added by addEntry() are removed.
+   */
+  public synchronized static void loadDictionary() throws MorphException {
+    Dictionary.reload(false);
+  }
   
-  private static HashMap<String, String> abbreviations;
+  /**
+   * Returns the dictionary of the analysis running in the current thread, see {@link Dictionary#inUse()}.
+   */
+  private static Dictionary dictionary() throws MorphException {
+    return Dictionary.inUse();
+  }
   
   /**
-   * 사전을 로드한다.
+   * 사전 파일(dictionary, extension, compounds)을 읽어 trie 를 만든다.
    */
-  public synchronized static void loadDictionary() throws MorphException {
+  static DoubleArrayTrie<WordEntry> readDictionary() throws MorphException {
     
-    dictionary = new Trie<String, WordEntry>(true);
+    Map<String, WordEntry> entries = new LinkedHashMap<String, WordEntry>();
     List<String> strList = null;
     List<String> compounds = null;
-    List<String> abbrevs = null;
     try {
       strList = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_DICTIONARY),"UTF-8");
       strList.addAll(FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_EXTENSION),"UTF-8"));
       compounds = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_COMPOUNDS),"UTF-8"); 
-      abbrevs = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_ABBREV),"UTF-8"); 
     } catch (IOException e) {      
-      new MorphException(e.getMessage(),e);
-    } catch (Exception e) {
-      new MorphException(e.getMessage(),e);
+      throw new MorphException(e.getMessage(),e);
     }
     if(strList==null) throw new MorphException("dictionary is null");;
     
     for(String str:strList) {
-      String[] infos = str.split("[,]+");
-      if(infos.length!=2) continue;
-      infos[1] = infos[1].trim();
-      if(infos[1].length()==6) infos[1] = infos[1].substring(0,5)+"000"+infos[1].substring(5);
-      
-      WordEntry entry = new WordEntry(infos[0].trim(),infos[1].trim().toCharArray());
-      dictionary.add(entry.getWord(), entry);
+      WordEntry entry = parseWord(str);
+      if(entry!=null) entries.put(entry.getWord(), entry);
     }
     
+    Map<CompoundEntry, CompoundEntry> interned = new HashMap<CompoundEntry, CompoundEntry>();
     for(String compound: compounds) 
     {    
-      String[] infos = compound.split("[:]+");
-      if(infos.length!=3&&infos.length!=2) continue;
-      
-      WordEntry entry = null;
-      if(infos.length==2) 
-        entry = new WordEntry(infos[0].trim(),"200000000X".toCharArray());
-      else 
-        entry = new WordEntry(infos[0].trim(),("200"+infos[2]+"00X").toCharArray());
-      
-      entry.setCompounds(compoundArrayToList(infos[1], infos[1].split("[,]+")));
-      dictionary.add(entry.getWord(), entry);
+      WordEntry entry = parseCompound(compound, interned);
+      if(entry!=null) entries.put(entry.getWord(), entry);
     }
     
-    abbreviations = new HashMap();
+    return new DoubleArrayTrie<WordEntry>(entries, true);
+  }
+  
+  /**
+   * 사전(dictionary, extension)의 한 줄(단어,속성)을 읽는다.
+   * @return  the entry, or null if the line is not an entry
+   */
+  static WordEntry parseWord(String line) {
+    String[] infos = line.split("[,]+");
+    if(infos.length!=2) return null;
+    infos[1] = infos[1].trim();
+    if(infos[1].length()==6) infos[1] = infos[1].substring(0,5)+"000"+infos[1].substring(5);
     
-    for(String abbrev: abbrevs) 
-    {    
-      String[] infos = abbrev.split("[:]+");
-      if(infos.length!=2) continue;      
-      abbreviations.put(infos[0].trim(), infos[1].trim());
+    return new WordEntry(infos[0].trim(),infos[1].trim().toCharArray());
+  }
+  
+  /**
+   * 복합명사 사전의 한 줄(복합명사:명사,명사[:속성])을 읽는다.
+   * @param interned  the compound entries read so far, see {@link CompoundEntry#intern(Map)}
+   * @return  the entry, or null if the line is not an entry
+   */
+  static WordEntry parseCompound(String line, Map<CompoundEntry, CompoundEntry> interned) {
+    String[] infos = line.split("[:]+");
+    if(infos.length!=3&&infos.length!=2) return null;
+    
+    WordEntry entry = null;
+    if(infos.length==2) 
+      entry = new WordEntry(infos[0].trim(),"200000000X".toCharArray());
+    else 
+      entry = new WordEntry(infos[0].trim(),("200"+infos[2]+"00X").toCharArray());
+    
+    entry.setCompounds(compoundArrayToList(infos[1], infos[1].split("[,]+"), interned));
+    return entry;
+  }
+  
+  static HashMap<String, String> readAbbreviations() throws MorphException {
+    HashMap<String, String> map = new HashMap<String, String>();
+    try {
+      List<String> abbrevs = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_ABBREV),"UTF-8"); 
+      for(String abbrev: abbrevs) 
+      {    
+        String[] infos = abbrev.split("[:]+");
+        if(infos.length!=2) continue;      
+        map.put(infos[0].trim(), infos[1].trim());
+      }
+    } catch (IOException e) {
+      throw new MorphException(e.getMessage(),e);
     }
+    return map;
   }
 
-  @SuppressWarnings({"rawtypes","unchecked"})
   public static Iterator<WordEntry> findWithPrefix(String prefix) throws MorphException {
-    if(dictionary==null) loadDictionary();
-    return dictionary.getPrefixedBy(prefix);
+    return dictionary().findWithPrefix(prefix);
+  }
+
+  /**
+   * 사전을 한 번만 탐색하여 text[from..to) 의 접두어 중 사전에 있는 단어를 모두 찾는다.
+   * The entries come in the order of their length, so the entry of
+   * text[from..end) has the word length end-from. The walk stops as soon as
+   * no dictionary word starts with the characters read so far.
+   * Entries of the user dictionary and those added by addEntry() take precedence like in getWord().
+   *
+   * @param text  the text to search
+   * @param from  the start offset of the prefixes
+   * @param to  the end offset (exclusive) of the longest prefix
+   * @return  the dictionary entries of the prefixes, never null
+   */
+  public static List<WordEntry> commonPrefixSearch(CharSequence text, int from, int to) throws MorphException {
+    List<WordEntry> found = new ArrayList<WordEntry>(4);
+    commonPrefixSearch(text, from, to, found);
+    return found;
+  }
+  
+  /**
+   * Same as {@link #commonPrefixSearch(CharSequence, int, int)}, but appends the
+   * entries to the given list, so that the searches from several offsets can share one list.
+   */
+  public static void commonPrefixSearch(CharSequence text, int from, int to, List<WordEntry> found) throws MorphException {
+    dictionary().commonPrefixSearch(text, from, to, found);
   }
 
   public static WordEntry getWord(String key)  {    
    
 	try {
-		if(dictionary==null) loadDictionary();
 	    if(key.length()==0) return null;
 	    
-	    return (WordEntry)dictionary.get(key);
+	    return dictionary().getWord(key);
 	} catch (MorphException e) {
 		throw new RuntimeException(e);
 	}
 
   }
 
+  /**
+   * Adds the entry to the default dictionary, before its words. The default
+   * dictionary is replaced by a new one which has the entry, so the running
+   * analyses do not see it and the caches drop the results of the old one.
+   */
   public static void addEntry(WordEntry entry) {
-      try {
-           if(dictionary==null) loadDictionary();
-           dictionary.add(entry.getWord(), entry);
-      } catch (MorphException e) {
-          throw new RuntimeException(e);
-      }
+    try {
+      Dictionary.addEntry(entry);
+    } catch (MorphException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   public static WordEntry getWordExceptVerb(String key) throws MorphException {    
-    WordEntry entry = getWord(key);    
+    return exceptVerb(getWord(key));
+  }
+  
+  /**
+   * Returns the entry if it is a noun, a compound noun or an adverb, otherwise null.
+   */
+  public static WordEntry exceptVerb(WordEntry entry) {
     if(entry==null) return null;
     
-    if(entry.getFeature(WordEntry.IDX_NOUN)=='1'||
-        entry.getFeature(WordEntry.IDX_NOUN)=='2'||
-        entry.getFeature(WordEntry.IDX_BUSA)=='1')
+    if(entry.hasAny(WordEntry.EXCEPT_VERB))
       return entry;
     
     return null;
@@ -146,7 +203,7 @@ public class DictionaryUtil {
     WordEntry entry = getWord(key);
     if(entry==null) return null;
     
-    if(entry.getFeature(WordEntry.IDX_NOUN)=='1') return entry;
+    if(entry.isNoun()) return entry;
     return null;
   }
   
@@ -158,11 +215,16 @@ public class DictionaryUtil {
    * @throws MorphException throw exception
    */
   public static WordEntry getAllNoun(String key) throws MorphException {  
-
-    WordEntry entry = getWord(key);
+    return allNoun(getWord(key));
+  }
+  
+  /**
+   * Returns the entry if it is a noun or a compound noun, otherwise null.
+   */
+  public static WordEntry allNoun(WordEntry entry) {
     if(entry==null) return null;
 
-    if(entry.getFeature(WordEntry.IDX_NOUN)=='1' || entry.getFeature(WordEntry.IDX_NOUN)=='2') return entry;
+    if(entry.hasAny(WordEntry.ALL_NOUN)) return entry;
     return null;
   }
   
@@ -171,7 +233,7 @@ public class DictionaryUtil {
     WordEntry entry = getWord(key);  
     if(entry==null) return null;
 
-    if(entry.getFeature(WordEntry.IDX_VERB)=='1') {
+    if(entry.isVerb()) {
       return entry;
     }
     return null;
@@ -181,7 +243,7 @@ public class DictionaryUtil {
     WordEntry entry = getWord(key);
     if(entry==null) return null;
 
-    if(entry.getFeature(WordEntry.IDX_BUSA)=='1') return entry;
+    if(entry.isBusa()) return entry;
     return null;
   }
   
@@ -189,7 +251,7 @@ public class DictionaryUtil {
     WordEntry entry = getWord(key);
     if(entry==null) return null;
 
-    if(entry.getFeature(WordEntry.IDX_BUSA)=='1') return entry;
+    if(entry.isBusa()) return entry;
     return null;
   }
   
@@ -197,8 +259,7 @@ public class DictionaryUtil {
     WordEntry entry = getWord(key);
     if(entry==null) return null;
 
-    if(entry.getFeature(WordEntry.IDX_VERB)=='1'&&
-        entry.getFeature(WordEntry.IDX_REGURA)==irrType) return entry;
+    if(entry.isVerb()&&entry.getIrregularType()==irrType) return entry;
     return null;
   }
   
@@ -206,7 +267,7 @@ public class DictionaryUtil {
     WordEntry entry = getWord(key);
     if(entry==null) return null;
     
-    if(entry.getFeature(WordEntry.IDX_BEV)=='1') return entry;
+    if(entry.isBeVerb()) return entry;
     return null;
   }
   
@@ -214,109 +275,128 @@ public class DictionaryUtil {
     WordEntry entry = getWord(key);
     if(entry==null) return null;
     
-    if(entry.getFeature(WordEntry.IDX_DOV)=='1') return entry;
+    if(entry.isDoVerb()) return entry;
     return null;
   }
   
   public static String getAbbrevMorph(String key) throws MorphException {
-    if(abbreviations==null) loadDictionary();    
-    return abbreviations.get(key);
+    return dictionary().getAbbreviation(key);
   }
   
-  public synchronized static WordEntry getUncompound(String key) throws MorphException {
-    
+  public static WordEntry getUncompound(String key) throws MorphException {
+    return dictionary().getUncompound(key);
+  }
+  
+  static HashMap<String,WordEntry> readUncompounds() throws MorphException {
+    HashMap<String,WordEntry> map = new HashMap<String,WordEntry>();
+    Map<CompoundEntry, CompoundEntry> interned = new HashMap<CompoundEntry, CompoundEntry>();
     try {
-      if(uncompounds==null) {
-        uncompounds = new HashMap<String,WordEntry>();
-        List<String> lines = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_UNCOMPOUNDS),"UTF-8");  
-        for(String compound: lines) {    
-          String[] infos = compound.split("[:]+");
-          if(infos.length!=2) continue;
-          WordEntry entry = new WordEntry(infos[0].trim(),"90000X".toCharArray());
-          entry.setCompounds(compoundArrayToList(infos[1], infos[1].split("[,]+")));
-          uncompounds.put(entry.getWord(), entry);
-        }      
-      }  
+      List<String> lines = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_UNCOMPOUNDS),"UTF-8");  
+      for(String compound: lines) {    
+        String[] infos = compound.split("[:]+");
+        if(infos.length!=2) continue;
+        WordEntry entry = new WordEntry(infos[0].trim(),"90000X".toCharArray());
+        entry.setCompounds(compoundArrayToList(infos[1], infos[1].split("[,]+"), interned));
+        map.put(entry.getWord(), entry);
+      }      
     }catch(Exception e) {
       throw new MorphException(e);
     }
-    return uncompounds.get(key);
+    return map;
   }
   
-  public synchronized static String getCJWord(String key) throws MorphException {
-    
+  public static String getCJWord(String key) throws MorphException {
+    return dictionary().getCJWord(key);
+  }
+  
+  static HashMap<String, String> readCJWords() throws MorphException {
+    HashMap<String, String> map = new HashMap<String, String>();
     try {
-      if(cjwords==null) {
-        cjwords = new HashMap<String, String>();
-        List<String> lines = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_CJ),"UTF-8");  
-        for(String cj: lines) {    
-          String[] infos = cj.split("[:]+");
-          if(infos.length!=2) continue;
-          cjwords.put(infos[0], infos[1]);
-        }      
-      }  
+      List<String> lines = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_CJ),"UTF-8");  
+      for(String cj: lines) {    
+        String[] infos = cj.split("[:]+");
+        if(infos.length!=2) continue;
+        map.put(infos[0], infos[1]);
+      }      
     }catch(Exception e) {
       throw new MorphException(e);
     }
-    return cjwords.get(key);
+    return map;
+  }
+  
+  /**
+   * 태거의 어절 공기 규칙을 읽는다. see {@link org.apache.lucene.analysis.ko.tagging.Tagger#getGR(String)}
+   */
+  static Trie<String, String[]> readOccurrences() throws MorphException {
+    
+    Trie<String, String[]> occurrences = new Trie<String, String[]>(true);
     
+    try {
+      
+      List<String> strs = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_TAGGER), "UTF-8");
+      
+      for(String str : strs) {
+        if(str==null) continue;
+        str = str.trim();
+        String[] syls = str.split("[:]+");
+        if(syls.length!=4) continue;
+        
+        String key = null;        
+        if("F".equals(syls[0])) key = syls[2].substring(0,syls[2].lastIndexOf("/")+1) + syls[1].substring(0,syls[1].lastIndexOf("/"));
+        else key = syls[1].substring(0,syls[1].lastIndexOf("/")+1) + syls[2].substring(0,syls[2].lastIndexOf("/"));
+
+        final String joined = syls[1] + "/" + syls[2] + "/" + syls[3];
+        String[] patns = joined.split("[/]+");
+        
+        occurrences.add(syls[0]+key, patns);
+        
+      }      
+      
+    } catch (Exception e) {
+      throw new MorphException("Fail to read the tagger dictionary.("+KoreanEnv.FILE_TAGGER+")\n"+e.getMessage());
+    }
+    return occurrences;
   }
   
   public static boolean existJosa(String str) throws MorphException {
-    if(josas==null) {
-      josas = new HashMap<String, String>();
-      readFile(josas,KoreanEnv.FILE_JOSA);
-    }  
-    if(josas.get(str)==null) return false;
-    else return true;
+    return dictionary().getJosa(str)!=null;
   }
   
   public static boolean existEomi(String str)  throws MorphException {
-    if(eomis==null) {
-      eomis = new HashMap<String, String>();
-      readFile(eomis,KoreanEnv.FILE_EOMI);
-    }
-
-    if(eomis.get(str)==null) return false;
-    else return true;
+    return dictionary().getEomi(str)!=null;
   }
   
   public static String getJosa(String str) throws MorphException {
-    if(josas==null) {
-      josas = new HashMap<String, String>();
-      readFile(josas,KoreanEnv.FILE_JOSA);
-    }  
-    return josas.get(str);
+    return dictionary().getJosa(str);
   }
   
   public static String getEomi(String str)  throws MorphException {
-    if(eomis==null) {
-      eomis = new HashMap<String, String>();
-      readFile(eomis,KoreanEnv.FILE_EOMI);
-    }
-
-    return eomis.get(str);
+    return dictionary().getEomi(str);
+  }
+  
+  /**
+   * Returns the josas as a trie of reversed words. Walking it from the end
+   * of an eojeol to the left finds every josa the eojeol ends with, and
+   * the walk can stop as soon as there is no transition.
+   */
+  public static DoubleArrayTrie<String> getReverseJosa() throws MorphException {
+    return dictionary().getReverseJosa();
   }
+  
+  /**
+   * Returns the eomis as a trie of reversed words, see {@link #getReverseJosa()}.
+   */
+  public static DoubleArrayTrie<String> getReverseEomi() throws MorphException {
+    return dictionary().getReverseEomi();
+  }
+  
 	  
   public static boolean existPrefix(String str)  throws MorphException {
-    if(prefixs==null) {
-      prefixs = new HashMap<String, String>();
-      readFile(prefixs,KoreanEnv.FILE_PREFIX);
-    }
-    
-    if(prefixs.get(str)==null) return false;
-    else return true;
+    return dictionary().existPrefix(str);
   }
   
   public static boolean existSuffix(String str)  throws MorphException {
-    if(suffixs==null) {
-      suffixs = new HashMap<String, String>();
-      readFile(suffixs,KoreanEnv.FILE_SUFFIX);
-    }
-
-    if(suffixs.get(str)!=null) return true;
-    
-    return false;
+    return dictionary().existSuffix(str);
   }
   
   /**
@@ -340,12 +420,12 @@ public class DictionaryUtil {
   
   /**
    * modified at 2017-09-19 by smlee
-   * @param map map
    * @param dic  1: josa, 2: eomi
    * @throws MorphException excepton
    */
-  private static synchronized void readFile(HashMap<String, String> map, String dic) throws MorphException {    
+  static synchronized HashMap<String, String> readFile(String dic) throws MorphException {    
     
+    HashMap<String, String> map = new HashMap<String, String>();
     String path = KoreanEnv.getInstance().getValue(dic);
 
     try{
@@ -366,15 +446,18 @@ public class DictionaryUtil {
     } catch (Exception e) {
       throw new MorphException(e.getMessage(),e);
     }
+    return map;
   }
   
-  private static List<CompoundEntry> compoundArrayToList(String source, String[] arr) {
-    List<CompoundEntry> list = new ArrayList<CompoundEntry>();
+  /**
+   * @param interned  the entries already read, equal entries are shared
+   */
+  private static List<CompoundEntry> compoundArrayToList(String source, String[] arr,
+      Map<CompoundEntry, CompoundEntry> interned) {
+    List<CompoundEntry> list = new ArrayList<CompoundEntry>(arr.length);
     for(String str: arr) {
-      CompoundEntry ce = new CompoundEntry(str);
-      ce.setOffset(source.indexOf(str));
-      ce.setCompoundDic(true);
-      list.add(ce);
+      CompoundEntry ce = new CompoundEntry(str, source.indexOf(str), true, PatternConstants.POS_NOUN, true);
+      list.add(ce.intern(interned));
     }
     return list;
   }
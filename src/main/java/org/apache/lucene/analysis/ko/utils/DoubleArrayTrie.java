@@ -0,0 +1,465 @@
+package org.apache.lucene.analysis.ko.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * A read-only trie stored as a double array (BASE/CHECK) plus a value array.
+ * <p>
+ *
+ * A transition from state s with character code c goes to t = base[s] + c and
+ * is valid only if check[t] == s, so a lookup is a few array reads per
+ * character and no objects are visited. Code 0 is the terminal transition;
+ * the terminal slot of a key stores -(value index + 1) in its base.
+ * Characters are mapped to dense codes (1..alphabet size) so that siblings
+ * pack tightly.
+ * <p>
+ *
+ * The trie is built once from all keys and can not be modified afterwards
+ * (except for replacing the value of an existing key). Like {@link Trie} it
+ * can be set to ignore case, in which case keys and search strings are
+ * folded to lower case character by character.
+ * <p>
+ *
+ * This class is safe for concurrent readers once constructed.
+ */
+public class DoubleArrayTrie<V> {
+
+  private static final int NO_STATE = -1;
+
+  private static final int INITIAL_SIZE = 1 << 16;
+
+  private final boolean ignoreCase;
+
+  /**
+   * maps a character to its code. 0 means that the character is not used by any key.
+   */
+  private char[] charCodes;
+
+  private int alphabetSize;
+
+  private int[] base;
+
+  private int[] check;
+
+  private Object[] values;
+
+  private int size;
+
+  /**
+   * the first child of each state and the next sibling of each child, in code
+   * order, so that the values under a state are iterated without trying every code
+   */
+  private int[] firstChild;
+
+  private int[] nextSibling;
+
+  /**
+   * free slot from which the next sibling search starts (used while building)
+   */
+  private int nextCheckPos;
+
+  /**
+   * Builds the trie from the given entries. When two keys are equal after
+   * case folding, the one which comes later in the iteration order wins as
+   * {@link Trie#add(String, Object)} would do.
+   *
+   * @param entries  key/value pairs, keys and values must not be null
+   * @param ignoreCase  whether to fold keys to lower case
+   */
+  public DoubleArrayTrie(Map<String, V> entries, boolean ignoreCase) {
+    this.ignoreCase = ignoreCase;
+
+    TreeMap<String, V> sorted = new TreeMap<String, V>();
+    for(Map.Entry<String, V> e : entries.entrySet()) {
+      sorted.put(canonicalCase(e.getKey()), e.getValue());
+    }
+
+    String[] keys = sorted.keySet().toArray(new String[sorted.size()]);
+    values = sorted.values().toArray(new Object[sorted.size()]);
+
+    buildAlphabet(keys);
+    build(keys);
+    linkChildren();
+  }
+
+  /**
+   * Restores a trie from the arrays of a built one. used by {@link DictionarySnapshot}.
+   *
+   * @param alphabet  the characters in code order, see {@link #alphabet()}
+   */
+  DoubleArrayTrie(char[] alphabet, int[] base, int[] check, Object[] values, boolean ignoreCase) {
+    this.ignoreCase = ignoreCase;
+    this.charCodes = new char[Character.MAX_VALUE+1];
+    for(int i=0;i<alphabet.length;i++) charCodes[alphabet[i]] = (char)(i+1);
+    this.alphabetSize = alphabet.length;
+    this.base = base;
+    this.check = check;
+    this.values = values;
+    this.size = base.length;
+    linkChildren();
+  }
+
+  /**
+   * Returns the canonical version of the given string.
+   */
+  public String canonicalCase(String s) {
+    if(!ignoreCase) return s;
+
+    for(int i=0;i<s.length();i++) {
+      char c = s.charAt(i);
+      if(fold(c)!=c) {
+        char[] chs = s.toCharArray();
+        for(int j=i;j<chs.length;j++) chs[j] = fold(chs[j]);
+        return new String(chs);
+      }
+    }
+    return s;
+  }
+
+  private char fold(char c) {
+    if(!ignoreCase) return c;
+    if(c<0x80) return (c>='A'&&c<='Z') ? (char)(c+32) : c;
+    if(MorphUtil.isHanSyllable(c)) return c;
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  private int code(char c) {
+    return charCodes[fold(c)];
+  }
+
+  /**
+   * Returns the value associated with the given key, or null if none.
+   */
+  public V get(String key) {
+    return get(key, 0, key.length());
+  }
+
+  /**
+   * Same as get(key.subSequence(start, end)) without creating the sub sequence.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(CharSequence key, int start, int end) {
+    int s = 0;
+    for(int i=start;i<end;i++) {
+      s = next(s, key.charAt(i));
+      if(s==NO_STATE) return null;
+    }
+    int idx = valueIndex(s);
+    return idx<0 ? null : (V)values[idx];
+  }
+
+  /**
+   * Returns the state reached from the state s with the character c, or -1
+   * if there is no such transition. The root state is 0.
+   */
+  public int next(int s, char c) {
+    int code = code(c);
+    if(code==0) return NO_STATE;
+    int t = base[s] + code;
+    if(t>=size || check[t]!=s) return NO_STATE;
+    return t;
+  }
+
+  /**
+   * Returns the index of the value stored at the state s, or -1 if no key ends there.
+   */
+  public int valueIndex(int s) {
+    int t = base[s];
+    if(t<0 || t>=size || check[t]!=s) return -1;
+    return -base[t] - 1;
+  }
+
+  /**
+   * Returns the value stored at the state s, or null if no key ends there.
+   */
+  @SuppressWarnings("unchecked")
+  public V valueAt(int s) {
+    int idx = valueIndex(s);
+    return idx<0 ? null : (V)values[idx];
+  }
+
+  /**
+   * Replaces the value of a key which is already in this trie.
+   * @return false if the key does not exist
+   */
+  public boolean replace(String key, V value) {
+    int s = 0;
+    for(int i=0;i<key.length()&&s!=NO_STATE;i++) {
+      s = next(s, key.charAt(i));
+    }
+    if(s==NO_STATE) return false;
+    int idx = valueIndex(s);
+    if(idx<0) return false;
+    values[idx] = value;
+    return true;
+  }
+
+  /**
+   * Returns true if any key starts with the given prefix.
+   */
+  public boolean hasPrefix(CharSequence prefix, int start, int end) {
+    int s = 0;
+    for(int i=start;i<end&&s!=NO_STATE;i++) {
+      s = next(s, prefix.charAt(i));
+    }
+    // every state of the trie leads to at least one key.
+    return s!=NO_STATE;
+  }
+
+  /**
+   * Returns an iterator of the values mapped by keys in this that start with
+   * the given prefix, in key order.
+   */
+  @SuppressWarnings("unchecked")
+  public Iterator<V> getPrefixedBy(String prefix) {
+    int s = 0;
+    for(int i=0;i<prefix.length()&&s!=NO_STATE;i++) {
+      s = next(s, prefix.charAt(i));
+    }
+    return new ValueIterator(s);
+  }
+
+  /**
+   * Returns the number of keys.
+   */
+  public int size() {
+    return values.length;
+  }
+
+  boolean isIgnoreCase() {
+    return ignoreCase;
+  }
+
+  /**
+   * Returns the characters used by the keys; the character at i has the code i+1.
+   */
+  char[] alphabet() {
+    char[] alphabet = new char[alphabetSize];
+    for(int c=0;c<charCodes.length;c++) {
+      if(charCodes[c]!=0) alphabet[charCodes[c]-1] = (char)c;
+    }
+    return alphabet;
+  }
+
+  int[] base() {
+    return base;
+  }
+
+  int[] check() {
+    return check;
+  }
+
+  Object[] values() {
+    return values;
+  }
+
+  private void buildAlphabet(String[] keys) {
+    boolean[] used = new boolean[Character.MAX_VALUE+1];
+    for(String key : keys) {
+      for(int i=0;i<key.length();i++) used[key.charAt(i)] = true;
+    }
+
+    // codes follow the character order, so that the sorted keys keep their order.
+    charCodes = new char[Character.MAX_VALUE+1];
+    int code = 0;
+    for(int c=0;c<used.length;c++) {
+      if(used[c]) charCodes[c] = (char)(++code);
+    }
+    alphabetSize = code;
+  }
+
+  private void build(String[] keys) {
+    // small tries, such as those of the added entries, start small
+    long chars = 0;
+    for(String key : keys) chars += key.length()+1;
+    int capacity = (int)Math.min(INITIAL_SIZE, chars*2 + alphabetSize + 1);
+    base = new int[capacity];
+    check = new int[capacity];
+    Arrays.fill(check, NO_STATE);
+    check[0] = 0;
+    size = 1;
+    nextCheckPos = 1;
+
+    if(keys.length>0) insert(0, keys, 0, keys.length, 0);
+
+    base = Arrays.copyOf(base, size);
+    check = Arrays.copyOf(check, size);
+  }
+
+  /**
+   * places the children of the state s, which share the keys[left..right) at the given depth.
+   */
+  private void insert(int s, String[] keys, int left, int right, int depth) {
+
+    // collect the distinct codes of the children with their key ranges
+    List<int[]> siblings = new ArrayList<int[]>();
+    int prev = -1;
+    for(int i=left;i<right;i++) {
+      String key = keys[i];
+      int c = depth<key.length() ? charCodes[key.charAt(depth)] : 0;
+      if(c!=prev) {
+        if(!siblings.isEmpty()) siblings.get(siblings.size()-1)[2] = i;
+        siblings.add(new int[]{c, i, right});
+        prev = c;
+      }
+    }
+
+    int begin = findBase(siblings);
+    base[s] = begin;
+
+    for(int[] sib : siblings) {
+      check[begin+sib[0]] = s;
+    }
+
+    for(int[] sib : siblings) {
+      int t = begin + sib[0];
+      if(sib[0]==0) {
+        base[t] = -sib[1] - 1; // terminal; keys are unique, so the range holds one key.
+      } else {
+        insert(t, keys, sib[1], sib[2], depth+1);
+      }
+    }
+  }
+
+  /**
+   * links the children of each state. the slots are visited from the end, so that
+   * prepending each child leaves the siblings in code order.
+   */
+  private void linkChildren() {
+    firstChild = new int[size];
+    nextSibling = new int[size];
+    Arrays.fill(firstChild, NO_STATE);
+    for(int t=size-1;t>0;t--) {
+      int s = check[t];
+      if(s==NO_STATE) {
+        nextSibling[t] = NO_STATE;
+        continue;
+      }
+      nextSibling[t] = firstChild[s];
+      firstChild[s] = t;
+    }
+  }
+
+  private int findBase(List<int[]> siblings) {
+    int first = siblings.get(0)[0];
+    int pos = Math.max(nextCheckPos, first+1) - 1;
+    int occupied = 0;
+    boolean foundFree = false;
+
+    while(true) {
+      pos++;
+      ensureCapacity(pos+1);
+      if(check[pos]!=NO_STATE) {
+        occupied++;
+        continue;
+      }
+      if(!foundFree) {
+        nextCheckPos = pos;
+        foundFree = true;
+      }
+
+      int begin = pos - first;
+      if(begin<1) continue;
+      ensureCapacity(begin + siblings.get(siblings.size()-1)[0] + 1);
+
+      boolean fit = true;
+      for(int i=1;i<siblings.size();i++) {
+        if(check[begin+siblings.get(i)[0]]!=NO_STATE) {
+          fit = false;
+          break;
+        }
+      }
+      if(!fit) continue;
+
+      // skip the dense area in the next searches
+      if((double)occupied/(pos-nextCheckPos+1)>=0.95) nextCheckPos = pos;
+
+      int last = begin + siblings.get(siblings.size()-1)[0] + 1;
+      if(last>size) size = last;
+      return begin;
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if(capacity<=base.length) return;
+    int newLength = Math.max(capacity, base.length + (base.length>>1));
+    int oldLength = base.length;
+    base = Arrays.copyOf(base, newLength);
+    check = Arrays.copyOf(check, newLength);
+    Arrays.fill(check, oldLength, newLength, NO_STATE);
+  }
+
+  /**
+   * iterates the values under a state in key order with a depth first search.
+   */
+  private class ValueIterator extends UnmodifiableIterator {
+
+    // the next child to visit at each depth
+    private int[] stack = new int[16];
+
+    private int depth;
+
+    private int nextIndex = -1;
+
+    ValueIterator(int start) {
+      if(start!=NO_STATE) push(firstChild[start]);
+      advance();
+    }
+
+    public boolean hasNext() {
+      return nextIndex>=0;
+    }
+
+    public Object next() {
+      if(nextIndex<0) throw new NoSuchElementException();
+      Object v = values[nextIndex];
+      advance();
+      return v;
+    }
+
+    private void advance() {
+      nextIndex = -1;
+      while(depth>0) {
+        int t = stack[depth-1];
+        if(nextSibling[t]==NO_STATE) depth--;
+        else stack[depth-1] = nextSibling[t];
+
+        if(base[t]<0) {
+          // the terminal comes first among the siblings, so shorter keys come first
+          nextIndex = -base[t] - 1;
+          return;
+        }
+        push(firstChild[t]);
+      }
+    }
+
+    private void push(int child) {
+      if(child==NO_STATE) return;
+      if(depth==stack.length) stack = Arrays.copyOf(stack, depth*2);
+      stack[depth++] = child;
+    }
+  }
+}
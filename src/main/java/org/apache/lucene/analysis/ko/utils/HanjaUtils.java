@@ -26,12 +26,16 @@ import java.util.Map;
 
 public class HanjaUtils {
 
-  private static Map<String, char[]> mapHanja;
+  static final String FILE_HANJA = "org/apache/lucene/analysis/ko/dic/mapHanja.dic";
   
-  public synchronized static void loadDictionary() throws MorphException {
+  public static void loadDictionary() throws MorphException {
+    Dictionary.getDefault();
+  }
+  
+  static Map<String, char[]> readHanja() throws MorphException {
+    Map<String, char[]> map = new HashMap<String, char[]>();
     try {
-      List<String> strList = FileUtil.readLines("org/apache/lucene/analysis/ko/dic/mapHanja.dic","UTF-8");
-      mapHanja = new HashMap<String, char[]>();    
+      List<String> strList = FileUtil.readLines(FILE_HANJA,"UTF-8");
     
       for(int i=0;i<strList.size();i++) {
         
@@ -44,11 +48,12 @@ public class HanjaUtils {
         
         String hanja = StringEscapeUtil.unescapeJava(hanInfos[0]);
 
-        mapHanja.put(hanja, hanInfos[1].toCharArray());
+        map.put(hanja, hanInfos[1].toCharArray());
       }      
     } catch (IOException e) {
       throw new MorphException(e);
     }
+    return map;
   }
   
   /**
@@ -57,11 +62,9 @@ public class HanjaUtils {
    */
   public static char[] convertToHangul(char hanja) throws MorphException {
  
-    if(mapHanja==null)  loadDictionary();
-
 //    if(hanja>0x9FFF||hanja<0x3400) return new char[]{hanja};
     
-    char[] result = mapHanja.get(new String(new char[]{hanja}));
+    char[] result = Dictionary.inUse().getHangul(hanja);
     if(result==null) return new char[]{hanja};
     
     return result;
@@ -56,11 +56,11 @@ public class IrregularUtil {
   public static String[] restoreIrregularVerb(String start, String end) throws MorphException {
 
     if(end==null) end="";
-    char[] jasos = new char[0];
+    char first = end.length()>0 ? end.charAt(0) : '\0';
+    char cho = MorphUtil.choseongOf(first);
+    char jung = MorphUtil.jungseongOf(first);
 
-    if(end.length()>0) jasos = MorphUtil.decompose(end.charAt(0));
-
-    if(end.startsWith("ㄴ") || (jasos.length>0 && 'ㄴ'==jasos[0])) {      
+    if(end.startsWith("ㄴ") || (end.length()>0 && 'ㄴ'==cho)) {      
       String[] irrs = restoreBIrregular(start,end);
       if(irrs!=null) return irrs;  
       irrs = restoreHIrregular(start,end);
@@ -100,7 +100,7 @@ public class IrregularUtil {
 //    }else if(end.startsWith("으")) {      
 //      String[] irrs = restoreBIrregular(start,end);
 //      if(irrs!=null) return irrs;        
-    }else if(jasos.length>1&&jasos[0]=='ㅇ'&&(jasos[1]=='ㅓ'||jasos[1]=='ㅏ')) {      
+    }else if(cho=='ㅇ'&&(jung=='ㅓ'||jung=='ㅏ')) {      
       String[] irrs = restoreDIrregular(start,end);
       if(irrs!=null) return irrs;  
       irrs = restoreSIrregular(start,end);
@@ -113,7 +113,7 @@ public class IrregularUtil {
       if(irrs!=null) return irrs;    
       irrs = restoreRUIrregular(start,end);
       if(irrs!=null) return irrs;            
-    }else if(jasos.length>1&&jasos[0]=='ㅇ'&&jasos[1]=='ㅡ') {      
+    }else if(cho=='ㅇ'&&jung=='ㅡ') {      
       String[] irrs = restoreDIrregular(start,end);
       if(irrs!=null) return irrs;    
       irrs = restoreSIrregular(start,end);
@@ -153,7 +153,7 @@ public class IrregularUtil {
         start = Character.toString(ch);    
 
       WordEntry entry = DictionaryUtil.getVerb(start);
-      if(entry!=null&&entry.getFeature(WordEntry.IDX_REGURA)==IRR_TYPE_BIUP)
+      if(entry!=null&&entry.getIrregularType()==IRR_TYPE_BIUP)
         return new String[]{start,end};      
     }
 
@@ -170,8 +170,7 @@ public class IrregularUtil {
     if(start==null||"".equals(start)) return null;
     
     char ch = start.charAt(start.length()-1);
-    char[] jasos = MorphUtil.decompose(ch);
-    if(jasos.length!=3||jasos[2]!='ㄹ') return null;
+    if(MorphUtil.jongseongOf(ch)!='ㄹ') return null;
     
     ch = MorphUtil.makeChar(ch, 7);
     if(start.length()>1) 
@@ -180,7 +179,7 @@ public class IrregularUtil {
       start = Character.toString(ch);
     
     WordEntry entry = DictionaryUtil.getVerb(start);
-    if(entry!=null&&entry.getFeature(WordEntry.IDX_REGURA)==IRR_TYPE_DI)
+    if(entry!=null&&entry.getIrregularType()==IRR_TYPE_DI)
       return new String[]{start,end};
     
     return null;
@@ -196,8 +195,7 @@ public class IrregularUtil {
     if(start==null||"".equals(start)) return null;
     
     char ch = start.charAt(start.length()-1);
-    char[] jasos = MorphUtil.decompose(ch);
-    if(jasos.length!=2) return null;
+    if(!MorphUtil.isOpenSyllable(ch)) return null;
     
     ch = MorphUtil.makeChar(ch, 19);
     if(start.length()>1) 
@@ -206,7 +204,7 @@ public class IrregularUtil {
       start = Character.toString(ch);
     
     WordEntry entry = DictionaryUtil.getVerb(start);
-    if(entry!=null&&entry.getFeature(WordEntry.IDX_REGURA)==IRR_TYPE_SIUT)
+    if(entry!=null&&entry.getIrregularType()==IRR_TYPE_SIUT)
       return new String[]{start,end};
 
     return null;
@@ -226,9 +224,7 @@ public class IrregularUtil {
     char ch1 = start.charAt(start.length()-2);
     char ch2 = start.charAt(start.length()-1);
     
-    char[] jasos1 = MorphUtil.decompose(ch1);
-    
-    if(((jasos1.length==3&&jasos1[2]=='ㄹ')||jasos1.length==2)&&(ch2=='러'||ch2=='라')) {
+    if((MorphUtil.jongseongOf(ch1)=='ㄹ'||MorphUtil.isOpenSyllable(ch1))&&(ch2=='러'||ch2=='라')) {
   
       StringBuffer sb = new StringBuffer();
       
@@ -239,7 +235,7 @@ public class IrregularUtil {
         sb.append(Character.toString(ch1)).append("르");
 
       WordEntry entry = DictionaryUtil.getVerb(sb.toString());
-      if(entry!=null&&entry.getFeature(WordEntry.IDX_REGURA)==IRR_TYPE_LOO)
+      if(entry!=null&&entry.getIrregularType()==IRR_TYPE_LOO)
         return new String[]{sb.toString(),end};    
     }
     
@@ -259,16 +255,15 @@ public class IrregularUtil {
     if(start==null || start.length()==0 || end==null||end.length()==0) return null;
        
     char ch1 = end.charAt(0);   
-    char[] jasos1 = MorphUtil.decompose(ch1);
     
-    if(!(end.charAt(0)=='ㄴ'||end.charAt(0)=='ㄹ'||end.charAt(0)=='ㅂ'|| jasos1[0]=='ㄴ' ||         
+    if(!(end.charAt(0)=='ㄴ'||end.charAt(0)=='ㄹ'||end.charAt(0)=='ㅂ'|| MorphUtil.choseongOf(ch1)=='ㄴ' ||         
         end.charAt(0)=='오' || end.charAt(0)=='시')) return null;
       
     char convEnd = MorphUtil.makeChar(start.charAt(start.length()-1), 8);
     start = start.substring(0,start.length()-1)+convEnd;
 
     WordEntry entry = DictionaryUtil.getVerb(start);
-    if(entry!=null&&entry.getFeature(WordEntry.IDX_REGURA)==IRR_TYPE_LIUL)
+    if(entry!=null&&entry.getIrregularType()==IRR_TYPE_LIUL)
       return new String[]{start,end};  
     
     return null;
@@ -287,9 +282,7 @@ public class IrregularUtil {
     char ch1 = start.charAt(start.length()-1);
     char ch2 = start.charAt(start.length()-2);
     
-    char[] jasos1 = MorphUtil.decompose(ch1);
-    char[] jasos2 = MorphUtil.decompose(ch2);
-    if(jasos1[0]!='ㄹ'||jasos2[0]!='ㄹ') return null;
+    if(MorphUtil.choseongOf(ch1)!='ㄹ'||MorphUtil.choseongOf(ch2)!='ㄹ') return null;
     
     ch2 = MorphUtil.makeChar(ch2, 0);
     if(start.length()>2) 
@@ -298,7 +291,7 @@ public class IrregularUtil {
       start = Character.toString(ch2);
 
     WordEntry entry = DictionaryUtil.getVerb(start);
-    if(entry!=null&&entry.getFeature(WordEntry.IDX_REGURA)==IRR_TYPE_RU)
+    if(entry!=null&&entry.getIrregularType()==IRR_TYPE_RU)
       return new String[]{start,end};
     
     return null;
@@ -315,13 +308,10 @@ public class IrregularUtil {
     char ch1 = end.charAt(0);
     char ch2 = start.charAt(start.length()-1);
     
-    char[] jasos1 = MorphUtil.decompose(ch1);
-    char[] jasos2 = MorphUtil.decompose(ch2);
-    
-    if(jasos1.length==1) {
+    if(!MorphUtil.isHanSyllable(ch1)) {
       ch2 = MorphUtil.makeChar(ch2, 27);
     }else {
-      if(jasos2.length!=2||jasos2[1]!='ㅐ') return null;
+      if(!MorphUtil.isOpenSyllable(ch2)||MorphUtil.jungseongOf(ch2)!='ㅐ') return null;
       ch2 = MorphUtil.makeChar(ch2, 0, 27);
     }
             
@@ -331,7 +321,7 @@ public class IrregularUtil {
       start = Character.toString(ch2);
 
     WordEntry entry = DictionaryUtil.getVerb(start);
-    if(entry!=null&&entry.getFeature(WordEntry.IDX_REGURA)==IRR_TYPE_HIOOT)
+    if(entry!=null&&entry.getIrregularType()==IRR_TYPE_HIOOT)
       return new String[]{start,end};
     
     return null;
@@ -346,8 +336,7 @@ public class IrregularUtil {
   private static String[] restoreUIrregular(String start, String end) throws MorphException {
     if(start==null||"".equals(start)) return null;
     char ch = start.charAt(start.length()-1);    
-    char[] jasos = MorphUtil.decompose(ch);
-    if(!(jasos.length==2&&jasos[1]=='ㅓ')) return null;
+    if(!(MorphUtil.isOpenSyllable(ch)&&MorphUtil.jungseongOf(ch)=='ㅓ')) return null;
     
     ch = MorphUtil.makeChar(ch, 18,0);
 
@@ -48,6 +48,17 @@ public class KoreanEnv {
   
   public static final String FILE_CJ = "cj.dic";
   
+  /**
+   * the co-occurrence rules of the eojeols, see {@link org.apache.lucene.analysis.ko.tagging.Tagger}
+   */
+  public static final String FILE_TAGGER = "tagger.dic";
+  
+  /**
+   * precompiled binary snapshot of the dictionaries, see {@link DictionarySnapshot}.
+   * an empty value disables the snapshot.
+   */
+  public static final String FILE_SNAPSHOT = "snapshot.bin";
+  
   public static final String FILE_KOREAN_PROPERTY = "org/apache/lucene/analysis/ko/korean.properties";
   
   private Properties defaults = null;
@@ -57,7 +68,7 @@ public class KoreanEnv {
    */
   private Properties props = null;
   
-  private static KoreanEnv instance = null;
+  private static volatile KoreanEnv instance = null;
   
   /**
    * The constructor loads property values from the property file.
@@ -72,10 +83,17 @@ public class KoreanEnv {
   }
   
   public static KoreanEnv getInstance() throws MorphException {
-    if(instance==null)
-      instance = new KoreanEnv();
-
-    return instance;
+    KoreanEnv env = instance;
+    if(env==null) {
+      synchronized(KoreanEnv.class) {
+        env = instance;
+        if(env==null) {
+          env = new KoreanEnv();
+          instance = env;
+        }
+      }
+    }
+    return env;
   }
   
   /**
@@ -95,6 +113,8 @@ public class KoreanEnv {
     defaults.setProperty(FILE_UNCOMPOUNDS,"org/apache/lucene/analysis/ko/dic/uncompounds.dic");
     defaults.setProperty(FILE_ABBREV,"org/apache/lucene/analysis/ko/dic/abbreviation.dic");
     defaults.setProperty(FILE_CJ,"org/apache/lucene/analysis/ko/dic/cj.dic");
+    defaults.setProperty(FILE_TAGGER,"org/apache/lucene/analysis/ko/dic/occurrence.dic");
+    defaults.setProperty(FILE_SNAPSHOT,"org/apache/lucene/analysis/ko/dic/dictionary.bin");
   }
 
   
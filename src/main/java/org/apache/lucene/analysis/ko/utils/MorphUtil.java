@@ -45,57 +45,138 @@ public class MorphUtil {
   
   private static final int JUNG_JONG = JUNGSEONG.length * JONGSEONG.length;
 
+  private static final int HANGUL_SIZE = CHOSEONG.length * JUNG_JONG;
+
+  private static final int CHO_SHIFT = 10;
+
+  private static final int JUNG_SHIFT = 5;
+
+  private static final int JONG_MASK = 0x1F;
+
+  /**
+   * 음절(0xAC00 부터)마다 초성/중성/종성의 인덱스를 (cho&lt;&lt;10)|(jung&lt;&lt;5)|jong 으로 저장한다.
+   */
+  private static final int[] JAMO_TABLE = new int[HANGUL_SIZE];
+
+  /**
+   * 초성*중성 인덱스(cho*21+jung)에 해당하는 받침 없는 음절.
+   */
+  private static final char[] CHO_JUNG_TABLE = new char[CHOSEONG.length * JUNGSEONG.length];
+
+  static {
+    for(int i=0;i<HANGUL_SIZE;i++) {
+      int cho = i/JUNG_JONG;
+      int jung = (i%JUNG_JONG)/JONGSEONG.length;
+      int jong = i%JONGSEONG.length;
+      JAMO_TABLE[i] = (cho<<CHO_SHIFT)|(jung<<JUNG_SHIFT)|jong;
+      if(jong==0) CHO_JUNG_TABLE[cho*JUNGSEONG.length+jung] = (char)(0xAC00+i);
+    }
+  }
   
   /**
    * 한글 한글자를 초성/중성/종성의 배열로 만들어 반환한다.
+   * 배열을 생성하지 않으려면 {@link #choseongOf(char)}, {@link #jungseongOf(char)},
+   * {@link #jongseongOf(char)} 를 사용한다.
    * @param c the character to be decomposed
    */
   public static char[] decompose(char c) {
-    char[] result = null;
+    int jamo = jamoOf(c);
+    if(jamo<0) return new char[]{c};
 
-    if(c>0xD7A3||c<0xAC00) return new char[]{c};
-    
-    c -= 0xAC00;
+    char choseong = CHOSEONG[jamo>>>CHO_SHIFT];
+    char jungseong = JUNGSEONG[(jamo>>>JUNG_SHIFT)&JONG_MASK];
+    int jong = jamo&JONG_MASK;
 
-    char choseong = CHOSEONG[c/JUNG_JONG];
-    c = (char)(c % JUNG_JONG);
-    
-    char jungseong = JUNGSEONG[c/JONGSEONG.length];
-    
-    char jongseong = JONGSEONG[c%JONGSEONG.length];
-    
-    if(jongseong != 0) {
-      result = new char[] {choseong, jungseong, jongseong};
-    }else {
-      result = new char[] {choseong, jungseong};      
+    if(jong != 0) {
+      return new char[] {choseong, jungseong, JONGSEONG[jong]};
     }
-    return result;
+    return new char[] {choseong, jungseong};
   }  
   
+  /**
+   * 초성/중성/종성의 인덱스를 (cho&lt;&lt;10)|(jung&lt;&lt;5)|jong 으로 묶어서 반환한다.
+   * @return 한글 음절이 아니면 -1
+   */
+  public static int jamoOf(char c) {
+    int idx = c - 0xAC00;
+    if(idx<0||idx>=HANGUL_SIZE) return -1;
+    return JAMO_TABLE[idx];
+  }
+
+  /**
+   * 초성을 반환한다. 한글 음절이 아니면 c 를 그대로 반환한다.(decompose(c)[0] 과 같다)
+   */
+  public static char choseongOf(char c) {
+    int jamo = jamoOf(c);
+    return jamo<0 ? c : CHOSEONG[jamo>>>CHO_SHIFT];
+  }
+
+  /**
+   * 중성을 반환한다. 한글 음절이 아니면 '\0' 을 반환한다.
+   */
+  public static char jungseongOf(char c) {
+    int jamo = jamoOf(c);
+    return jamo<0 ? '\0' : JUNGSEONG[(jamo>>>JUNG_SHIFT)&JONG_MASK];
+  }
+
+  /**
+   * 종성을 반환한다. 받침이 없거나 한글 음절이 아니면 '\0' 을 반환한다.
+   */
+  public static char jongseongOf(char c) {
+    int jamo = jamoOf(c);
+    return jamo<0 ? '\0' : JONGSEONG[jamo&JONG_MASK];
+  }
+
+  /**
+   * 종성의 인덱스(JONGSEONG 의 순서, 받침이 없으면 0)를 반환한다.
+   * @return 한글 음절이 아니면 -1
+   */
+  public static int jongseongIndex(char c) {
+    int jamo = jamoOf(c);
+    return jamo<0 ? -1 : jamo&JONG_MASK;
+  }
+
+  /**
+   * 받침이 있는 한글 음절인지 반환한다.
+   */
+  public static boolean hasJongseong(char c) {
+    int jamo = jamoOf(c);
+    return jamo>=0 && (jamo&JONG_MASK)!=0;
+  }
+
+  /**
+   * 받침이 없는 한글 음절인지 반환한다.(decompose(c).length==2 와 같다)
+   */
+  public static boolean isOpenSyllable(char c) {
+    int jamo = jamoOf(c);
+    return jamo>=0 && (jamo&JONG_MASK)==0;
+  }
+
   public static char compound(int first, int middle, int last) {    
+    if(first>=0&&first<CHOSEONG.length&&middle>=0&&middle<JUNGSEONG.length)
+      return (char)(CHO_JUNG_TABLE[first*JUNGSEONG.length+middle] + last);
     return (char)(0xAC00 + first* JUNG_JONG + middle * JONGSEONG.length + last);
   }
   
 
   public static char makeChar(char ch, int mdl, int last) {    
-    ch -= 0xAC00;    
-    int first = ch/JUNG_JONG;     
-    return compound(first,mdl,last);
+    int jamo = jamoOf(ch);
+    if(jamo<0) return compound((char)(ch-0xAC00)/JUNG_JONG,mdl,last);
+    return compound(jamo>>>CHO_SHIFT,mdl,last);
   }
   
   public static char makeChar(char ch, int last) {
-    ch -= 0xAC00;    
-    int first = ch/JUNG_JONG;  
-    ch = (char)(ch % JUNG_JONG);
-    int middle = ch/JONGSEONG.length;
-    
-    return compound(first,middle,last);    
+    int jamo = jamoOf(ch);
+    if(jamo<0) {
+      ch -= 0xAC00;
+      return compound(ch/JUNG_JONG,(ch%JUNG_JONG)/JONGSEONG.length,last);
+    }
+    return (char)(ch - (jamo&JONG_MASK) + last);    
   }
   
   public static char replaceJongsung(char dest, char source) {
-    source -= 0xAC00;    
-    int last = source % JONGSEONG.length;
-      
+    int jamo = jamoOf(source);
+    int last = jamo<0 ? (char)(source-0xAC00) % JONGSEONG.length : jamo&JONG_MASK;
     return makeChar(dest,last);  
   }
 
@@ -145,8 +226,7 @@ public class MorphUtil {
   public static void buildPtnCM(AnalysisOutput output, List<AnalysisOutput> candidates) throws MorphException {
     
     char ch = output.getStem().charAt(output.getStem().length()-2);
-    char[] jasos = MorphUtil.decompose(ch);
-    if(jasos.length==3||ch=='기') {
+    if(hasJongseong(ch)||ch=='기') {
       buildPtnVMCM(output,candidates);      
     } else {
       
@@ -160,8 +240,6 @@ public class MorphUtil {
     output.setPos(PatternConstants.POS_VERB);
     
     char ch = stem.charAt(stem.length()-2);
-    char[] jasos = MorphUtil.decompose(ch);
-
     if(ch=='기') {
       output.addElist("기");
       output.addElist("이");
@@ -169,7 +247,7 @@ public class MorphUtil {
       
       if(DictionaryUtil.getVerb(output.getStem())!=null)
         candidates.add(output);
-    }else if(jasos[2]=='ㅁ') {
+    }else if(jongseongOf(ch)=='ㅁ') {
       if(stem.length()>1) stem = stem.substring(0,stem.length()-2);
       stem += MorphUtil.makeChar(ch, 0);
       output.addElist("ㅁ");
@@ -192,14 +270,19 @@ public class MorphUtil {
   public static boolean hasVerbSyllableOnly(String input) {
     
    try {
-     for(int i=input.length()-1;i>=0;i--) {
-        char[] feature = SyllableUtil.getFeature(input.charAt(i));
-        if(feature[SyllableUtil.IDX_WDSURF]=='1'&&input.length()>i) return true;
-      }
+     return hasVerbSyllableOnly(Dictionary.inUse(), input);
    } catch(MorphException e) {
 	  throw new RuntimeException(e);
    }
-   
+  }
+  
+  /**
+   * Same as {@link #hasVerbSyllableOnly(String)}, but reads the syllable features of the given dictionary.
+   */
+  public static boolean hasVerbSyllableOnly(Dictionary dic, String input) {
+    for(int i=input.length()-1;i>=0;i--) {
+      if((dic.getSyllableFeature(input.charAt(i))&(1L<<SyllableUtil.IDX_WDSURF))!=0) return true;
+    }
     return false;
   }
   
@@ -39,6 +39,17 @@ public class NounUtil {
     }
   };
     
+  /**
+   * 어간부가 명사형 전성어미(기,ㅁ)로 끝나서 {@link #analysisMJ(AnalysisOutput, List)}로
+   * 분석될 수 있는지 조사한다.
+   */
+  public static boolean endsWithNominalEomi(String stem) {
+    int strlen = stem.length();
+    if(strlen==0 || (strlen<2 && !("함".equals(stem) || "됨".equals(stem)))) return false;
+    char last = stem.charAt(strlen-1);
+    return last=='기' || MorphUtil.jongseongOf(last)=='ㅁ';
+  }
+    
   /**
    * 
    * 어간부가 음/기 로 끝나는 경우
@@ -49,14 +60,9 @@ public class NounUtil {
    */
   public static boolean analysisMJ(AnalysisOutput o, List<AnalysisOutput> candidates) throws MorphException {
 
-    int strlen = o.getStem().length();
-       
-    if(strlen<2 && !("함".equals(o.getStem()) || "됨".equals(o.getStem()))) return false;       
-
-    char[] chrs = MorphUtil.decompose(o.getStem().charAt(strlen-1));
-    boolean success = false;
+    if(!endsWithNominalEomi(o.getStem())) return false;
 
-    if(o.getStem().charAt(strlen-1)!='기'&&!(chrs.length==3&&chrs[2]=='ㅁ')) return false;
+    int strlen = o.getStem().length();
 
     String start = o.getStem();
     String end = "";
@@ -185,9 +191,9 @@ public class NounUtil {
 
     if(entry!=null) {
       if(entry.getFeature(WordEntry.IDX_NOUN)=='0') return false;
-      else if(o.getVsfx().equals("하")&&entry.getFeature(WordEntry.IDX_DOV)!='1') return false;
-      else if(o.getVsfx().equals("되")&&entry.getFeature(WordEntry.IDX_BEV)!='1') return false;
-      else if(o.getVsfx().equals("내")&&entry.getFeature(WordEntry.IDX_NE)!='1') return false;
+      else if(o.getVsfx().equals("하")&&!entry.isDoVerb()) return false;
+      else if(o.getVsfx().equals("되")&&!entry.isBeVerb()) return false;
+      else if(o.getVsfx().equals("내")&&!entry.hasAny(WordEntry.NE)) return false;
       o.setScore(AnalysisOutput.SCORE_CORRECT); // '입니다'인 경우 인명 등 미등록어가 많이 발생되므로 분석성공으로 가정한다.      
     }else {
       o.setScore(AnalysisOutput.SCORE_ANALYSIS); // '입니다'인 경우 인명 등 미등록어가 많이 발생되므로 분석성공으로 가정한다.
@@ -212,9 +218,9 @@ public class NounUtil {
 
     if(entry!=null) {
       if(entry.getFeature(WordEntry.IDX_NOUN)=='0') return false;
-      else if(o.getVsfx().equals("하")&&entry.getFeature(WordEntry.IDX_DOV)!='1') return false;
-      else if(o.getVsfx().equals("되")&&entry.getFeature(WordEntry.IDX_BEV)!='1') return false;
-      else if(o.getVsfx().equals("내")&&entry.getFeature(WordEntry.IDX_NE)!='1') return false;
+      else if(o.getVsfx().equals("하")&&!entry.isDoVerb()) return false;
+      else if(o.getVsfx().equals("되")&&!entry.isBeVerb()) return false;
+      else if(o.getVsfx().equals("내")&&!entry.hasAny(WordEntry.NE)) return false;
       o.setScore(AnalysisOutput.SCORE_CORRECT); // '입니다'인 경우 인명 등 미등록어가 많이 발생되므로 분석성공으로 가정한다.      
     }else {
       o.setScore(AnalysisOutput.SCORE_ANALYSIS); // '입니다'인 경우 인명 등 미등록어가 많이 발생되므로 분석성공으로 가정한다.
@@ -243,10 +249,10 @@ public class NounUtil {
           
     WordEntry cnoun = DictionaryUtil.getWordExceptVerb(s);
     if(cnoun != null)  {
-      if(cnoun.getFeature(WordEntry.IDX_NOUN)=='2') {
+      if(cnoun.isCompoundNoun()) {
         output.setCNoun(cnoun.getCompounds());
       } else {
-    	if(cnoun.getFeature(WordEntry.IDX_NOUN)!='1')
+    	if(!cnoun.isNoun())
     		output.setPos(PatternConstants.POS_ETC);
     	
         output.setCNoun(Collections.EMPTY_LIST);
@@ -266,11 +272,10 @@ public class NounUtil {
         
       String josa = input.substring(i);
 
-      char[] feature =  SyllableUtil.getFeature(josa.charAt(0));    
       if(josaFlag&&DictionaryUtil.existJosa(josa)) return true;
   
         
-      if(josaFlag&&feature[SyllableUtil.IDX_JOSA2]=='0') josaFlag = false;        
+      if(josaFlag&&!SyllableUtil.hasFeature(josa.charAt(0), SyllableUtil.IDX_JOSA2)) josaFlag = false;        
       if(!josaFlag) break;
     }
       
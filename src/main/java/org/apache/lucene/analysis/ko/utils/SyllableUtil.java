@@ -20,92 +20,120 @@ package org.apache.lucene.analysis.ko.utils;
 import org.apache.lucene.analysis.ko.morph.MorphException;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 public class SyllableUtil {
 
-  public static int IDX_JOSA1 = 0; // 조사의 첫음절로 사용되는 음절 49개
-  public static int IDX_JOSA2 = 1; // 조사의 두 번째 이상의 음절로 사용되는 음절 58개
-  public static int IDX_EOMI1 = 2; // 어미의 첫음절로 사용되는 음절 72개
-  public static int IDX_EOMI2 = 3; // 어미의 두 번째 이상의 음절로 사용되는 음절 105개
-  public static int IDX_YONG1 = 4; // 1음절 용언에 사용되는 음절 362개
-  public static int IDX_YONG2 = 5; // 2음절 용언의 마지막 음절로 사용되는 음절 316개
-  public static int IDX_YONG3 = 6; // 3음절 이상 용언의 마지막 음절로 사용되는 음절 195개
-  public static int IDX_CHEON1 = 7; // 1음절 체언에 사용되는 음절 680개
-  public static int IDX_CHEON2 = 8; // 2음절 체언의 마지막 음절로 사용되는 음절 916개
-  public static int IDX_CHEON3 = 9; // 3음절 체언의 마지막 음절로 사용되는 음절 800개
-  public static int IDX_CHEON4 = 10; // 4음절 체언의 마지막 음절로 사용되는 음절 610개
-  public static int IDX_CHEON5 = 11; // 5음절 이상 체언의 마지막 음절로 사용되는 음절 330개
-  public static int IDX_BUSA1 = 12; // 1음절 부사의 마지막 음절로 사용되는 음절 191개
-  public static int IDX_BUSA2 = 13; // 2음절 부사의 마지막 음절로 사용되는 음절 519개
-  public static int IDX_BUSA3 = 14; // 3음절 부사의 마지막 음절로 사용되는 음절 139개
-  public static int IDX_BUSA4 = 15; // 4음절 부사의 마지막 음절로 사용되는 음절 366개
-  public static int IDX_BUSA5 = 16; // 5음절 부사의 마지막 음절로 사용되는 음절 79개
-  public static int IDX_PRONOUN = 17; // 대명사의 마지막 음절로 사용되는 음절 77개
-  public static int IDX_EXCLAM = 18; // 관형사와 감탄사의 마지막 음절로 사용되는 음절 241개
+  public static final int IDX_JOSA1 = 0; // 조사의 첫음절로 사용되는 음절 49개
+  public static final int IDX_JOSA2 = 1; // 조사의 두 번째 이상의 음절로 사용되는 음절 58개
+  public static final int IDX_EOMI1 = 2; // 어미의 첫음절로 사용되는 음절 72개
+  public static final int IDX_EOMI2 = 3; // 어미의 두 번째 이상의 음절로 사용되는 음절 105개
+  public static final int IDX_YONG1 = 4; // 1음절 용언에 사용되는 음절 362개
+  public static final int IDX_YONG2 = 5; // 2음절 용언의 마지막 음절로 사용되는 음절 316개
+  public static final int IDX_YONG3 = 6; // 3음절 이상 용언의 마지막 음절로 사용되는 음절 195개
+  public static final int IDX_CHEON1 = 7; // 1음절 체언에 사용되는 음절 680개
+  public static final int IDX_CHEON2 = 8; // 2음절 체언의 마지막 음절로 사용되는 음절 916개
+  public static final int IDX_CHEON3 = 9; // 3음절 체언의 마지막 음절로 사용되는 음절 800개
+  public static final int IDX_CHEON4 = 10; // 4음절 체언의 마지막 음절로 사용되는 음절 610개
+  public static final int IDX_CHEON5 = 11; // 5음절 이상 체언의 마지막 음절로 사용되는 음절 330개
+  public static final int IDX_BUSA1 = 12; // 1음절 부사의 마지막 음절로 사용되는 음절 191개
+  public static final int IDX_BUSA2 = 13; // 2음절 부사의 마지막 음절로 사용되는 음절 519개
+  public static final int IDX_BUSA3 = 14; // 3음절 부사의 마지막 음절로 사용되는 음절 139개
+  public static final int IDX_BUSA4 = 15; // 4음절 부사의 마지막 음절로 사용되는 음절 366개
+  public static final int IDX_BUSA5 = 16; // 5음절 부사의 마지막 음절로 사용되는 음절 79개
+  public static final int IDX_PRONOUN = 17; // 대명사의 마지막 음절로 사용되는 음절 77개
+  public static final int IDX_EXCLAM = 18; // 관형사와 감탄사의 마지막 음절로 사용되는 음절 241개
   
-  public static int IDX_YNPNA = 19; // (용언+'-ㄴ')에 의하여 생성되는 음절 129개
-  public static int IDX_YNPLA = 20; // (용언+'-ㄹ')에 의해 생성되는 음절 129개
-  public static int IDX_YNPMA = 21; // (용언+'-ㅁ')에 의해 생성되는 음절 129개
-  public static int IDX_YNPBA = 22; // (용언+'-ㅂ')에 의해 생성되는 음절 129개
-  public static int IDX_YNPAH = 23; // 모음으로 끝나는 음절 129개중 'ㅏ/ㅓ/ㅐ/ㅔ/ㅕ'로 끝나는 것이 선어말 어미 '-었-'과 결합할 때 생성되는 음절
-  public static int IDX_YNPOU = 24; // 모음 'ㅗ/ㅜ'로 끝나는 음절이 '아/어'로 시작되는 어미나 선어말 어미 '-었-'과 결합할 때 생성되는 음절
-  public static int IDX_YNPEI = 25; // 모음 'ㅣ'로 끝나는 용언이 '아/어'로 시작되는 어미나 선어말 어미 '-었-'과 결합할 때 생성되는 음절
-  public static int IDX_YNPOI = 26; // 모음 'ㅚ'로 끝나는 용언이 '아/어'로 시작되는 어미나 선어말 어미 '-었-'과 결합할 때 생성되는 음절
-  public static int IDX_YNPLN = 27; // 받침 'ㄹ'로 끝나는 용언이 어미 '-ㄴ'과 결합할 때 생성되는 음절
-  public static int IDX_IRRLO = 28; // '러' 불규칙(8개)에 의하여 생성되는 음절 : 러, 렀
-  public static int IDX_IRRPLE = 29; // '르' 불규칙(193개)에 의하여 생성되는 음절 
-  public static int IDX_IRROO = 30; // '우' 불규칙에 의하여 생성되는 음절 : 퍼, 펐
-  public static int IDX_IRROU = 31; // '어' 불규칙에 의하여 생성되는 음절 : 해, 했
-  public static int IDX_IRRDA = 32; // 'ㄷ' 불규칙(37개)에 의하여 생성되는 음절
-  public static int IDX_IRRBA = 33; // 'ㅂ' 불규칙(446개)에 의하여 생성되는 음절
-  public static int IDX_IRRSA = 34; // 'ㅅ' 불규칙(39개)에 의하여 생성되는 음절
-  public static int IDX_IRRHA = 35; // 'ㅎ' 불규칙(96개)에 의하여 생성되는 음절 
-  public static int IDX_PEND = 36; // 선어말 어미 : 시 셨 았 었 였 겠
+  public static final int IDX_YNPNA = 19; // (용언+'-ㄴ')에 의하여 생성되는 음절 129개
+  public static final int IDX_YNPLA = 20; // (용언+'-ㄹ')에 의해 생성되는 음절 129개
+  public static final int IDX_YNPMA = 21; // (용언+'-ㅁ')에 의해 생성되는 음절 129개
+  public static final int IDX_YNPBA = 22; // (용언+'-ㅂ')에 의해 생성되는 음절 129개
+  public static final int IDX_YNPAH = 23; // 모음으로 끝나는 음절 129개중 'ㅏ/ㅓ/ㅐ/ㅔ/ㅕ'로 끝나는 것이 선어말 어미 '-었-'과 결합할 때 생성되는 음절
+  public static final int IDX_YNPOU = 24; // 모음 'ㅗ/ㅜ'로 끝나는 음절이 '아/어'로 시작되는 어미나 선어말 어미 '-었-'과 결합할 때 생성되는 음절
+  public static final int IDX_YNPEI = 25; // 모음 'ㅣ'로 끝나는 용언이 '아/어'로 시작되는 어미나 선어말 어미 '-었-'과 결합할 때 생성되는 음절
+  public static final int IDX_YNPOI = 26; // 모음 'ㅚ'로 끝나는 용언이 '아/어'로 시작되는 어미나 선어말 어미 '-었-'과 결합할 때 생성되는 음절
+  public static final int IDX_YNPLN = 27; // 받침 'ㄹ'로 끝나는 용언이 어미 '-ㄴ'과 결합할 때 생성되는 음절
+  public static final int IDX_IRRLO = 28; // '러' 불규칙(8개)에 의하여 생성되는 음절 : 러, 렀
+  public static final int IDX_IRRPLE = 29; // '르' 불규칙(193개)에 의하여 생성되는 음절 
+  public static final int IDX_IRROO = 30; // '우' 불규칙에 의하여 생성되는 음절 : 퍼, 펐
+  public static final int IDX_IRROU = 31; // '어' 불규칙에 의하여 생성되는 음절 : 해, 했
+  public static final int IDX_IRRDA = 32; // 'ㄷ' 불규칙(37개)에 의하여 생성되는 음절
+  public static final int IDX_IRRBA = 33; // 'ㅂ' 불규칙(446개)에 의하여 생성되는 음절
+  public static final int IDX_IRRSA = 34; // 'ㅅ' 불규칙(39개)에 의하여 생성되는 음절
+  public static final int IDX_IRRHA = 35; // 'ㅎ' 불규칙(96개)에 의하여 생성되는 음절 
+  public static final int IDX_PEND = 36; // 선어말 어미 : 시 셨 았 었 였 겠
   
-  public static int IDX_YNPEOMI = 37; // 용언이 어미와 결합할 때 생성되는 음절의 수 734개
+  public static final int IDX_YNPEOMI = 37; // 용언이 어미와 결합할 때 생성되는 음절의 수 734개
   
   /**   용언의 표층 형태로만 사용되는 음절 */
-  public static int IDX_WDSURF = 38; 
+  public static final int IDX_WDSURF = 38; 
   
-  public static int IDX_EOGAN = 39; // 어미 또는 어미의 변형으로 존재할 수 있는 음 (즉 IDX_EOMI 이거나 IDX_YNPNA 이후에 1이 있는 음절)
+  public static final int IDX_EOGAN = 39; // 어미 또는 어미의 변형으로 존재할 수 있는 음 (즉 IDX_EOMI 이거나 IDX_YNPNA 이후에 1이 있는 음절)
   
-  private static List<char[]> Syllables;  // 음절특성 정보
+  /** IDX_* 의 개수 */
+  public static final int FEATURE_SIZE = 40;
+  
+  /** (용언+'-ㄴ') 또는 ㄹ 받침 용언+'-ㄴ' 으로 생성되는 음절 */
+  public static final long MASK_YNPNA_YNPLN = (1L<<IDX_YNPNA)|(1L<<IDX_YNPLN);
+  
+  /**
+   * 음절의 특성을 bit 로 반환한다. the bit 1L&lt;&lt;IDX_* is set
+   * when the syllable has the feature.
+   * 영자 또는 숫자일 경우는 모두 해당이 안되므로 가장 마지막 글자의 음절특성(모두 0)을 반환한다.
+   * @param syl  음절 하나
+   * @throws MorphException throw exception 
+   */
+  public static long getFeatureBits(char syl) throws MorphException {
+    return Dictionary.inUse().getSyllableFeature(syl);
+  }
+  
+  /**
+   * 음절이 idx 의 특성을 가지는지 반환한다.
+   * @param syl  음절 하나
+   * @param idx  IDX_*
+   * @throws MorphException throw exception 
+   */
+  public static boolean hasFeature(char syl, int idx) throws MorphException {
+    return (getFeatureBits(syl)&(1L<<idx))!=0;
+  }
+  
+  /**
+   * 음절이 mask 의 특성중 하나라도 가지는지 반환한다.
+   * @param syl  음절 하나
+   * @param mask  MASK_* or bits of IDX_*
+   * @throws MorphException throw exception 
+   */
+  public static boolean hasAnyFeature(char syl, long mask) throws MorphException {
+    return (getFeatureBits(syl)&mask)!=0;
+  }
   
   /**
    * 인덱스 값에 해당하는 음절의 특성을 반환한다.
-   * 영자 또는 숫자일 경우는 모두 해당이 안되므로 가장 마지막 글자인 '힣' 의 음절특성을 반환한다.
+   * 영자 또는 숫자일 경우는 모두 해당이 안되므로 가장 마지막 글자의 음절특성을 반환한다.
    * 
    * @param idx '가'(0xAC00)이 0부터 유니코드에 의해 한글음절을 순차적으로 나열한 값
    * @throws MorphException throw exceptioin
+   * @deprecated use {@link #hasFeature(char, int)}
    */
+  @Deprecated
   public static char[] getFeature(int idx)  throws MorphException {
-    
-    if(Syllables==null || Syllables.isEmpty()) Syllables = getSyllableFeature();
-  
-    if(idx<0||idx>=Syllables.size()) 
-      return Syllables.get(Syllables.size()-1);
-    else 
-      return Syllables.get(idx);
-    
+    return getFeature((char)(idx+0xAC00));
   }
   
   /**
-   * 각 음절의 특성을 반환한다.
+   * 각 음절의 특성을 '0', '1' 의 배열로 반환한다.
    * @param syl  음절 하나
    * @throws MorphException throw exception 
+   * @deprecated use {@link #hasFeature(char, int)}
    */
+  @Deprecated
   public static char[] getFeature(char syl) throws MorphException {
-    
-    int idx = syl - 0xAC00;
-    char[] feature = getFeature(idx);
-    if(feature==null) {
-    	feature = getFeature(0);
+    long bits = getFeatureBits(syl);
+    char[] feature = new char[FEATURE_SIZE];
+    for(int i=0;i<FEATURE_SIZE;i++) {
+      feature[i] = (bits&(1L<<i))!=0 ? '1' : '0';
     }
-    
     return feature;
-    
   }
   
   /**
@@ -113,21 +141,26 @@ public class SyllableUtil {
    * 
    * @throws MorphException throw exception
    */  
-  private static List<char[]> getSyllableFeature() throws MorphException {
+  static long[] readSyllableFeature() throws MorphException {
   
+    long[] syllables;
     try{
-      Syllables = new ArrayList<char[]>();
 
       List<String> line = FileUtil.readLines(KoreanEnv.getInstance().getValue(KoreanEnv.FILE_SYLLABLE_FEATURE),"UTF-8");  
-      for(int i=0;i<line.size();i++) {        
-        if(i!=0)
-          Syllables.add(line.get(i).toCharArray());
+      syllables = new long[line.size()-1];
+      for(int i=1;i<line.size();i++) {        
+        String row = line.get(i);
+        long bits = 0;
+        for(int j=0;j<FEATURE_SIZE&&j<row.length();j++) {
+          if(row.charAt(j)=='1') bits |= 1L<<j;
+        }
+        syllables[i-1] = bits;
       }
     }catch(IOException e) {
       throw new MorphException(e.getMessage());
     } 
 
-    return Syllables;
+    return syllables;
   }  
   
   public static boolean isAlpanumeric(char ch) {
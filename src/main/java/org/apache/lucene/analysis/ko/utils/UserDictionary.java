@@ -0,0 +1,111 @@
+package org.apache.lucene.analysis.ko.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.ko.morph.CompoundEntry;
+import org.apache.lucene.analysis.ko.morph.MorphException;
+import org.apache.lucene.analysis.ko.morph.WordEntry;
+
+/**
+ * 사용자 사전.
+ * <p>
+ *
+ * A small dictionary of the words of one user, looked up before the shared
+ * {@link Dictionary} by the analyzers it is set to, see
+ * {@link org.apache.lucene.analysis.ko.morph.MorphAnalyzer#setUserDictionary(UserDictionary)},
+ * and by the dictionary of {@link Dictionary#withUserDictionary(UserDictionary)}.
+ * It holds only its own words, so each user costs as much memory as its
+ * words while the large dictionary is loaded once. A word of the user
+ * dictionary hides the same word of the shared dictionary.
+ * <p>
+ *
+ * A user dictionary is never modified once it is created, so it can be
+ * shared by any number of analyzers and threads.
+ */
+public final class UserDictionary {
+
+  private final DoubleArrayTrie<WordEntry> words;
+
+  /**
+   * @param entries  the words, the later one wins when two have the same word
+   */
+  public UserDictionary(Collection<WordEntry> entries) {
+    Map<String, WordEntry> map = new LinkedHashMap<String, WordEntry>();
+    for(WordEntry entry : entries) {
+      map.put(entry.getWord(), entry);
+    }
+    words = new DoubleArrayTrie<WordEntry>(map, true);
+  }
+
+  /**
+   * Reads the lines in the format of the dictionary files: a line with ':' is
+   * a compound noun as in compounds.dic (복합명사:명사,명사[:속성]), the other lines
+   * are words as in dictionary.dic (단어,속성). Empty lines and the lines starting
+   * with '!' are skipped.
+   */
+  public static UserDictionary read(List<String> lines) {
+    Map<String, WordEntry> map = new LinkedHashMap<String, WordEntry>();
+    Map<CompoundEntry, CompoundEntry> interned = new HashMap<CompoundEntry, CompoundEntry>();
+    for(String line : lines) {
+      line = line.trim();
+      if(line.length()==0||line.charAt(0)=='!') continue;
+
+      WordEntry entry = line.indexOf(':')>=0 ?
+          DictionaryUtil.parseCompound(line, interned) : DictionaryUtil.parseWord(line);
+      if(entry!=null) map.put(entry.getWord(), entry);
+    }
+    return new UserDictionary(map.values());
+  }
+
+  /**
+   * Reads the file, from the class path or the jar like the dictionary files.
+   * @see #read(List)
+   */
+  public static UserDictionary load(String fName) throws MorphException {
+    try {
+      return read(FileUtil.readLines(fName, "UTF-8"));
+    } catch (IOException e) {
+      throw new MorphException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Returns the entry of the word, or null if the word is not in this dictionary.
+   */
+  public WordEntry get(String key) {
+    return words.get(key);
+  }
+
+  /**
+   * Returns the number of the words.
+   */
+  public int size() {
+    return words.size();
+  }
+
+  DoubleArrayTrie<WordEntry> getWords() {
+    return words;
+  }
+}
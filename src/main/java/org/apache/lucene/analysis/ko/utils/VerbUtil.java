@@ -35,13 +35,19 @@ public class VerbUtil {
   
   public static final HashSet<String> wiAbbrevs = new HashSet<String>();
   
+  /**
+   * the words of verbSuffix and XVerb, which are matched against the end of the stem
+   * without taking a substring
+   */
+  private static final String[] suffixs = {
+      "이","하","되","내", "있","없","같","드리","받","주","짓","스럽","시키","당하","만하"};
+  
+  //어려워지다,어려워하다,주게되다,주게하다
+  private static final String[] xverbs = {"오","내","주","보","지","놓","가","오르","올리","두","되","하"};
+  
   static {
-    String[] suffixs = {
-        "이","하","되","내", "있","없","같","드리","받","주","짓","스럽","시키","당하","만하"};
     for(int i=0;i<suffixs.length;i++) verbSuffix.add(suffixs[i]);
     
-    //어려워지다,어려워하다,주게되다,주게하다
-    String[] xverbs = {"오","내","주","보","지","놓","가","오르","올리","두","되","하"};
     for(int i=0;i<xverbs.length;i++) XVerb.add(xverbs[i]);
     
     String[] eomis = {"고","거나", "다","란"}; // 이 축약이 일어나는 어미
@@ -59,9 +65,9 @@ public class VerbUtil {
     if(len==2) start = 1;      
     for(int i=start;i>0;i--) { // the most length of verb suffix is 2
       int idx = len-i;
-      String suffix = stem.substring(idx);
+      String suffix = endsWith(stem, idx, suffixs);
       
-      if(verbSuffix.contains(suffix)) {
+      if(suffix!=null) {
     	  if((suffix.equals("당하") || suffix.equals("만하"))) {
     		  String noun = stem.substring(0, idx+1);
     		  if(DictionaryUtil.getAllNoun(noun)!=null) continue;
@@ -82,10 +88,21 @@ public class VerbUtil {
     int start = 2;
     if(len==2) start = 1;
     for(int i=start;i>0;i--) { //xverbs 의 가장 긴 글자수는 2이다.
-      if(XVerb.contains(stem.substring(len-i))) return (len-i);
+      if(endsWith(stem, len-i, xverbs)!=null) return (len-i);
     }
     return -1;
   }
+  
+  /**
+   * Returns the word which is the rest of the stem from idx, or null if none.
+   */
+  private static String endsWith(String stem, int idx, String[] words) {
+    int len = stem.length()-idx;
+    for(int i=0;i<words.length;i++) {
+      if(words[i].length()==len && stem.startsWith(words[i], idx)) return words[i];
+    }
+    return null;
+  }
    
   public static boolean verbSuffix(String stem) {
 
@@ -95,10 +112,7 @@ public class VerbUtil {
    
   public static boolean constraintVerb(String start, String end) {
      
-    char[] schs = MorphUtil.decompose(start.charAt(start.length()-1));
-    char[] echs = MorphUtil.decompose(end.charAt(0));
-     
-    if(schs.length==3&&schs[2]=='ㄹ'&&echs[0]=='ㄹ') return false;
+    if(MorphUtil.jongseongOf(start.charAt(start.length()-1))=='ㄹ'&&MorphUtil.choseongOf(end.charAt(0))=='ㄹ') return false;
      
     return true;
   }
@@ -126,7 +140,7 @@ public class VerbUtil {
     
     WordEntry entry = null;
     if(success&&(entry=DictionaryUtil.getAllNoun(o.getStem()))!=null) { 
-      if(entry.getFeature(WordEntry.IDX_NOUN)=='2') {
+      if(entry.isCompoundNoun()) {
         o.setCNoun(entry.getCompounds());
       }
       o.setScore(AnalysisOutput.SCORE_CORRECT);
@@ -155,7 +169,6 @@ public class VerbUtil {
 
     WordEntry entry =  DictionaryUtil.getWordExceptVerb(o.getStem());;
     
-    char[] chrs = MorphUtil.decompose(o.getStem().charAt(o.getStem().length()-1));
     if(!wiAbbrevs.contains(o.getEomi())||entry==null) {
       if(idxVbSfix<1) return false;     
       o.setVsfx(o.getStem().substring(idxVbSfix));
@@ -166,23 +179,23 @@ public class VerbUtil {
       else
     	  entry = DictionaryUtil.getWordExceptVerb(o.getStem());
     } else { // 이 축약인 경우
-      if(entry==null || chrs.length==3) return false;
+      if(entry==null || MorphUtil.hasJongseong(o.getStem().charAt(o.getStem().length()-1))) return false;
       o.setVsfx("이");
       o.setStem(o.getStem());
     }
 
     o.setPatn(PatternConstants.PTN_NSM);
 
-    if(entry!=null && entry.getFeature(WordEntry.IDX_NOUN)=='0' && entry.getFeature(WordEntry.IDX_BUSA)=='1')
+    if(entry!=null && entry.getFeature(WordEntry.IDX_NOUN)=='0' && entry.isBusa())
     	o.setPos(PatternConstants.POS_ETC);
     else
     	o.setPos(PatternConstants.POS_NOUN);
         
     if(entry!=null) {
       if(entry.getFeature(WordEntry.IDX_NOUN)=='0' && entry.getFeature(WordEntry.IDX_BUSA)=='0') return false;
-      else if(o.getVsfx().equals("하")&&entry.getFeature(WordEntry.IDX_DOV)!='1') return false;
-      else if(o.getVsfx().equals("되")&&entry.getFeature(WordEntry.IDX_BEV)!='1') return false;
-      else if(o.getVsfx().equals("내")&&entry.getFeature(WordEntry.IDX_NE)!='1') return false;
+      else if(o.getVsfx().equals("하")&&!entry.isDoVerb()) return false;
+      else if(o.getVsfx().equals("되")&&!entry.isBeVerb()) return false;
+      else if(o.getVsfx().equals("내")&&!entry.hasAny(WordEntry.NE)) return false;
       else if(o.getVsfx().equals("이")&&o.getEomi().equals("어")) return false;
       o.setScore(AnalysisOutput.SCORE_CORRECT); // '입니다'인 경우 인명 등 미등록어가 많이 발생되므로 분석성공으로 가정한다.      
     }else {
@@ -223,11 +236,11 @@ public class VerbUtil {
 
     if(entry==null) return false;  
     
-    if(o.getVsfx().equals("하")&&entry.getFeature(WordEntry.IDX_DOV)!='1') return false;
-    if(o.getVsfx().equals("되")&&entry.getFeature(WordEntry.IDX_BEV)!='1') return false;        
+    if(o.getVsfx().equals("하")&&!entry.isDoVerb()) return false;
+    if(o.getVsfx().equals("되")&&!entry.isBeVerb()) return false;        
     
     o.setScore(AnalysisOutput.SCORE_CORRECT);
-    if(entry.getFeature(WordEntry.IDX_NOUN)=='2') {
+    if(entry.isCompoundNoun()) {
       o.setCNoun(entry.getCompounds());
     }
     
@@ -244,14 +257,13 @@ public class VerbUtil {
      
     if(!o.getStem().endsWith("이")) return false;
      
-    char[] chrs = MorphUtil.decompose(o.getStem().charAt(strlen-2));
     boolean success = false;
   
     if(strlen>2&&o.getStem().endsWith("기이")) {
       o.setStem(o.getStem().substring(0,strlen-2));
       o.addElist("기");     
       success = true;       
-    } else if(chrs.length>2&&chrs[2]=='ㅁ'){
+    } else if(MorphUtil.jongseongOf(o.getStem().charAt(strlen-2))=='ㅁ'){
       String[] eres = EomiUtil.splitEomi(o.getStem().substring(0,strlen-1), "");
       if(eres[0]==null) return false;
       
@@ -298,7 +310,7 @@ public class VerbUtil {
     if(stomis[0]==null) return false;
     
     o.setStem(stomis[0]);
-    o.getElist().add(0, stomis[1]);
+    o.addElist(0, stomis[1]);
     
     o.setPos(PatternConstants.POS_VERB);
     o.setPatn(PatternConstants.PTN_VMXM);
@@ -339,8 +351,7 @@ public class VerbUtil {
 	      irrs = IrregularUtil.restoreIrregularVerb(stomis[0], stomis[1]);
 	      if(irrs!=null) return irrs;
 		    
-	      char[] feature =  SyllableUtil.getFeature(eomi.charAt(0));   
-	      if(eomiFlag&&feature[SyllableUtil.IDX_EOMI2]=='0') eomiFlag = false;
+	      if(eomiFlag&&!SyllableUtil.hasFeature(eomi.charAt(0), SyllableUtil.IDX_EOMI2)) eomiFlag = false;
 	      
 	      if(!eomiFlag) break;
 	    }
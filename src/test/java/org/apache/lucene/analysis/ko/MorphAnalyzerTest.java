@@ -1,9 +1,16 @@
 package org.apache.lucene.analysis.ko;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.lucene.analysis.ko.morph.AnalysisOutput;
+import org.apache.lucene.analysis.ko.morph.CompoundEntry;
 import org.apache.lucene.analysis.ko.morph.MorphAnalyzer;
+import org.apache.lucene.analysis.ko.morph.PatternConstants;
+import org.apache.lucene.analysis.ko.utils.DictionaryUtil;
 
 import junit.framework.TestCase;
 
@@ -21,4 +28,101 @@ public class MorphAnalyzerTest extends TestCase {
 			System.out.println(o);
 		}
 	}
+
+	public void testSharedAnalyzer() throws Exception {
+		final String[] inputs = {"정보검색시스템을", "학교에서", "먹었다", "아름다운", "갔습니다", "용수환경건물1층바닥slab거푸집설치"};
+		final MorphAnalyzer analyzer = new MorphAnalyzer();
+		final String[] expected = new String[inputs.length];
+		for(int i=0;i<inputs.length;i++) expected[i] = analyzer.analyze(inputs[i]).toString();
+
+		final List<String> failures = new ArrayList<String>();
+		Thread[] threads = new Thread[4];
+		for(int t=0;t<threads.length;t++) {
+			threads[t] = new Thread() {
+				public void run() {
+					try {
+						for(int k=0;k<50;k++) {
+							for(int i=0;i<inputs.length;i++) {
+								String actual = analyzer.analyze(inputs[i]).toString();
+								if(!expected[i].equals(actual)) throw new AssertionError(actual);
+							}
+						}
+					} catch(Throwable e) {
+						synchronized(failures) {
+							failures.add(e.toString());
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for(Thread thread : threads) thread.join();
+		assertTrue(failures.toString(), failures.isEmpty());
+	}
+
+	public void testAnalyzeAll() throws Exception {
+		String[] words = {"정보검색시스템을", "학교에서", "먹었다", "아름다운", "갔습니다", "학교에서"};
+		String[] inputs = new String[200];
+		for(int i=0;i<inputs.length;i++) inputs[i] = i%words.length==0 ? words[0]+i : words[i%words.length];
+
+		MorphAnalyzer analyzer = new MorphAnalyzer();
+		List<List<AnalysisOutput>> results = analyzer.analyzeAll(inputs, 1, inputs.length);
+		assertEquals(inputs.length-1, results.size());
+		for(int i=1;i<inputs.length;i++) {
+			assertEquals(analyzer.analyze(inputs[i]).toString(), results.get(i-1).toString());
+		}
+		assertSame(results.get(0), results.get(4)); // 학교에서
+		try {
+			results.get(0).clear();
+			fail();
+		} catch(UnsupportedOperationException e) {
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			analyzer.setExecutor(executor);
+			List<List<AnalysisOutput>> parallel = analyzer.analyzeAll(Arrays.asList(inputs));
+			assertEquals(inputs.length, parallel.size());
+			for(int i=1;i<inputs.length;i++) {
+				assertEquals(results.get(i-1).toString(), parallel.get(i).toString());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	public void testAnalyzeBest() throws Exception {
+		String[] inputs = {"학교에서", "학교", "정보검색시스템을", "먹었다", "공부하였다", "아름다운", "자동차.", "ABC"};
+
+		MorphAnalyzer analyzer = new MorphAnalyzer();
+		for(String input : inputs) {
+			AnalysisOutput best = analyzer.analyzeBest(input);
+			AnalysisOutput first = analyzer.analyze(input).get(0);
+			assertEquals(first.toString(), best.toString());
+			assertEquals(first.getScore(), best.getScore());
+			assertEquals(first.getCNounList().size(), best.getCNounList().size());
+		}
+	}
+
+	public void testCompounds() throws Exception {
+		// the noun candidate shares the compounds of the dictionary, the verb candidates have none
+		List<CompoundEntry> compounds = DictionaryUtil.getWord("기대감").getCompounds();
+		assertEquals(2, compounds.size());
+		for(String input : new String[] {"기대감에서", "기대감을"}) {
+			List<AnalysisOutput> outputs = new MorphAnalyzer().analyze(input);
+			assertEquals(2, outputs.size());
+			assertEquals(PatternConstants.PTN_NJ, outputs.get(0).getPatn());
+			assertSame(compounds, outputs.get(0).getCNounList());
+			assertEquals(PatternConstants.PTN_VMXMJ, outputs.get(1).getPatn());
+			assertTrue(outputs.get(1).getCNounList().isEmpty());
+		}
+
+		// the shared compounds are copied when one is added
+		AnalysisOutput output = new AnalysisOutput();
+		output.setCNoun(compounds);
+		output.addCNoun(new CompoundEntry("을"));
+		assertEquals(3, output.getCNounList().size());
+		assertEquals(2, compounds.size());
+		assertEquals(2, DictionaryUtil.getWord("기대감").getCompounds().size());
+	}
 }
@@ -0,0 +1,124 @@
+package org.apache.lucene.analysis.ko.morph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.ko.utils.Dictionary;
+import org.apache.lucene.analysis.ko.utils.DictionaryUtil;
+
+import junit.framework.TestCase;
+
+public class AnalysisCacheTest extends TestCase {
+
+	public void testEviction() throws Exception {
+		Dictionary dic = Dictionary.getDefault();
+		AnalysisCache cache = new AnalysisCache(2);
+		List<AnalysisOutput> results = new ArrayList<AnalysisOutput>();
+
+		assertNull(cache.get(dic, "학교에", MorphAnalyzer.POS_MID, false, true, 0));
+		cache.put(dic, "학교에", MorphAnalyzer.POS_MID, false, true, 0, results);
+		assertNotNull(cache.get(dic, "학교에", MorphAnalyzer.POS_MID, false, true, 0));
+		assertNull(cache.get(dic, "학교에", MorphAnalyzer.POS_END, false, true, 0));
+		assertNull(cache.get(dic, "학교에", MorphAnalyzer.POS_MID, true, true, 0));
+		assertNull(cache.get(dic, "학교에", MorphAnalyzer.POS_MID, false, true, 10));
+
+		cache.put(dic, "갔다", MorphAnalyzer.POS_MID, false, true, 0, results);
+		cache.put(dic, "왔다", MorphAnalyzer.POS_MID, false, true, 0, results);
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(4, cache.getMissCount());
+	}
+
+	public void testAnalyzer() throws Exception {
+		MorphAnalyzer plain = new MorphAnalyzer();
+		MorphAnalyzer cached = new MorphAnalyzer();
+		cached.setCache(new AnalysisCache(100));
+
+		String[] inputs = {"정보검색시스템을", "학교에서", "먹었다", "학교에서"};
+		for(String input : inputs) {
+			assertEquals(plain.analyze(input).toString(), cached.analyze(input).toString());
+		}
+		assertEquals(1, cached.getCache().getHitCount());
+
+		List<AnalysisOutput> results = cached.analyze("먹었다");
+		try {
+			results.clear();
+			fail();
+		} catch(UnsupportedOperationException e) {
+		}
+	}
+
+	public void testMaxCompoundProbes() throws Exception {
+		AnalysisCache cache = new AnalysisCache(100);
+		MorphAnalyzer limited = new MorphAnalyzer();
+		limited.setMaxCompoundProbes(2);
+		limited.setCache(cache);
+		MorphAnalyzer unlimited = new MorphAnalyzer();
+		unlimited.setCache(cache);
+
+		// the compound noun cut by the budget is not returned to the analyzer without one
+		AnalysisOutput cut = limited.analyze("경상정비공사를").get(0);
+		assertTrue(limited.getCompoundExceededCount() > 0);
+		AnalysisOutput full = unlimited.analyze("경상정비공사를").get(0);
+		assertEquals(AnalysisOutput.SCORE_CORRECT, full.getScore());
+		assertFalse(cut.getScore()==full.getScore());
+		assertEquals(0, cache.getHitCount());
+	}
+
+	public void testReload() throws Exception {
+		MorphAnalyzer analyzer = new MorphAnalyzer();
+		analyzer.setCache(new AnalysisCache(100));
+		String expected = analyzer.analyze("학교에서").toString();
+		assertEquals(1, analyzer.getCache().size());
+
+		Dictionary old = analyzer.getDictionary();
+		Dictionary dic = Dictionary.reload();
+		assertNotSame(old, dic);
+		assertSame(dic, analyzer.getDictionary());
+
+		assertEquals(expected, analyzer.analyze("학교에서").toString());
+		assertEquals(0, analyzer.getCache().getHitCount());
+		assertEquals(1, analyzer.getCache().size());
+
+		assertSame(dic, Dictionary.reloadIfModified());
+	}
+
+	public void testAddEntry() throws Exception {
+		MorphAnalyzer analyzer = new MorphAnalyzer();
+		analyzer.setCache(new AnalysisCache(100));
+		assertTrue(analyzer.analyzeBest("뷁쉛퀭에서").getScore()!=AnalysisOutput.SCORE_CORRECT);
+
+		DictionaryUtil.addEntry(new WordEntry("뷁쉛퀭", "100000000X".toCharArray()));
+		AnalysisOutput o = analyzer.analyzeBest("뷁쉛퀭에서");
+		assertEquals("뷁쉛퀭", o.getStem());
+		assertEquals(AnalysisOutput.SCORE_CORRECT, o.getScore());
+		assertEquals(0, analyzer.getCache().getHitCount());
+	}
+
+	public void testOwnDictionary() throws Exception {
+		Dictionary own = Dictionary.load();
+		MorphAnalyzer analyzer = new MorphAnalyzer(own);
+		assertSame(own, analyzer.getDictionary());
+
+		DictionaryUtil.addEntry(new WordEntry("퀭뷁쉛", "100000000X".toCharArray()));
+		assertEquals("퀭뷁쉛", new MorphAnalyzer().analyzeBest("퀭뷁쉛에서").getStem());
+		assertTrue(analyzer.analyzeBest("퀭뷁쉛에서").getScore()!=AnalysisOutput.SCORE_CORRECT);
+		assertEquals(new MorphAnalyzer().analyze("학교에서").toString(), analyzer.analyze("학교에서").toString());
+	}
+
+	public void testInUse() throws Exception {
+		Dictionary old = Dictionary.getDefault();
+		Dictionary previous = Dictionary.use(old);
+		try {
+			DictionaryUtil.addEntry(new WordEntry("아리랑스냅샷", "100000000X".toCharArray()));
+			assertNotSame(old, Dictionary.current());
+			// the running analysis keeps reading the old dictionary
+			assertSame(old, Dictionary.inUse());
+			assertNull(DictionaryUtil.getWord("아리랑스냅샷"));
+		} finally {
+			Dictionary.use(previous);
+		}
+		assertNotNull(DictionaryUtil.getWord("아리랑스냅샷"));
+	}
+}
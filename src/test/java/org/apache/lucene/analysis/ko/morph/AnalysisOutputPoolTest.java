@@ -0,0 +1,43 @@
+package org.apache.lucene.analysis.ko.morph;
+
+import junit.framework.TestCase;
+
+public class AnalysisOutputPoolTest extends TestCase {
+
+	public void testLazyLists() throws Exception {
+		AnalysisOutput o = new AnalysisOutput("먹", null, "었다", PatternConstants.PTN_VM);
+		assertTrue(o.getElist().isEmpty());
+		assertTrue(o.getCNounList().isEmpty());
+
+		AnalysisOutput clone = o.clone();
+		clone.addElist("었");
+		assertEquals(1, o.getElist().size());
+	}
+
+	public void testRecycle() throws Exception {
+		AnalysisOutputPool pool = new AnalysisOutputPool(1);
+		AnalysisOutput o = pool.get("학교", "에서", null, PatternConstants.PTN_NJ);
+		o.addJlist("에서");
+		AnalysisOutput copy = pool.copyOf(o);
+		assertEquals(o.toString(), copy.toString());
+		assertSame(o.getJlist(), copy.getJlist());
+
+		// the lists which are not allocated are not allocated by the copy
+		copy.addElist("에서");
+		assertTrue(o.getElist().isEmpty());
+		assertTrue(o.getCNounList().isEmpty());
+
+		pool.release(o);
+		pool.release(o);
+		pool.release(copy);
+		assertEquals(1, pool.size());
+		assertEquals("에서", copy.getJlist().get(0));
+
+		AnalysisOutput reused = pool.get("먹", null, "었다", PatternConstants.PTN_VM);
+		assertSame(o, reused);
+		assertNull(reused.getJosa());
+		assertTrue(reused.getJlist().isEmpty());
+		assertEquals(AnalysisOutput.SCORE_ANALYSIS, reused.getScore());
+		assertEquals(0, pool.size());
+	}
+}
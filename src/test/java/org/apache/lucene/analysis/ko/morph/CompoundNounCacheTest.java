@@ -0,0 +1,98 @@
+package org.apache.lucene.analysis.ko.morph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.ko.utils.Dictionary;
+
+import junit.framework.TestCase;
+
+public class CompoundNounCacheTest extends TestCase {
+
+	public void testEviction() throws Exception {
+		Dictionary dic = Dictionary.getDefault();
+		CompoundNounCache cache = new CompoundNounCache(2);
+		List<CompoundEntry> entries = new ArrayList<CompoundEntry>();
+
+		assertNull(cache.get(dic, "정보검색", true, true, 0));
+		cache.put(dic, "정보검색", true, true, 0, entries);
+		assertNotNull(cache.get(dic, "정보검색", true, true, 0));
+		assertNull(cache.get(dic, "정보검색", false, true, 0));
+		assertNull(cache.get(dic, "정보검색", true, false, 0));
+		assertNull(cache.get(dic, "정보검색", true, true, 10));
+
+		cache.put(dic, "검색엔진", true, true, 0, entries);
+		cache.put(dic, "도서관", true, true, 0, entries);
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(4, cache.getMissCount());
+		assertEquals(0.2, cache.getHitRate(), 0.0001);
+	}
+
+	public void testAnalyzer() throws Exception {
+		CompoundNounAnalyzer plain = new CompoundNounAnalyzer();
+		CompoundNounAnalyzer cached = new CompoundNounAnalyzer();
+		cached.setCache(new CompoundNounCache(100));
+
+		String[] inputs = {"정보검색시스템", "도서관어린이사서", "정보검색시스템"};
+		for(String input : inputs) {
+			assertEquals(toString(plain.analyze(input)), toString(cached.analyze(input)));
+		}
+		assertEquals(1, cached.getCache().getHitCount());
+
+		List<CompoundEntry> entries = cached.analyze("도서관어린이사서");
+		try {
+			entries.clear();
+			fail();
+		} catch(UnsupportedOperationException e) {
+		}
+	}
+
+	public void testMaxProbes() throws Exception {
+		CompoundNounAnalyzer plain = new CompoundNounAnalyzer();
+		plain.setExactMach(false);
+		CompoundNounAnalyzer plainLimited = new CompoundNounAnalyzer();
+		plainLimited.setExactMach(false);
+		plainLimited.setMaxProbes(2);
+
+		CompoundNounCache cache = new CompoundNounCache(100);
+		CompoundNounAnalyzer limited = new CompoundNounAnalyzer();
+		limited.setExactMach(false);
+		limited.setMaxProbes(2);
+		limited.setCache(cache);
+		CompoundNounAnalyzer unlimited = new CompoundNounAnalyzer();
+		unlimited.setExactMach(false);
+		unlimited.setCache(cache);
+
+		// the segmentation cut by the budget is not returned to the analyzer without one
+		String input = "경상정비공사";
+		String full = toString(plain.analyze(input));
+		assertFalse(full.equals(toString(plainLimited.analyze(input))));
+		assertEquals(toString(plainLimited.analyze(input)), toString(limited.analyze(input)));
+		assertTrue(limited.getExceededCount() > 0);
+		assertEquals(full, toString(unlimited.analyze(input)));
+		assertEquals(0, cache.getHitCount());
+	}
+
+	public void testMorphAnalyzer() throws Exception {
+		MorphAnalyzer plain = new MorphAnalyzer();
+		MorphAnalyzer cached = new MorphAnalyzer();
+		cached.setCompoundCache(new CompoundNounCache(100));
+
+		String[] inputs = {"정보검색시스템을", "정보검색시스템에서", "도서관어린이사서가"};
+		for(String input : inputs) {
+			assertEquals(plain.analyze(input).toString(), cached.analyze(input).toString());
+		}
+		assertTrue(cached.getCompoundCache().getHitCount() > 0);
+	}
+
+	private static String toString(List<CompoundEntry> entries) {
+		StringBuilder sb = new StringBuilder();
+		for(CompoundEntry entry : entries) {
+			sb.append(entry.getWord()).append('/').append(entry.getOffset()).append('/')
+				.append(entry.isExist()).append(' ');
+		}
+		return sb.toString();
+	}
+}
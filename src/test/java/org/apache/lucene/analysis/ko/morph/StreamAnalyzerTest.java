@@ -0,0 +1,47 @@
+package org.apache.lucene.analysis.ko.morph;
+
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+public class StreamAnalyzerTest extends TestCase {
+
+	public void testOffsets() throws Exception {
+		String text = "  형태소 분석기는, 문장을(2014년에) 분석한다.\n정보검색시스템을 slab 12 Lucene검색 abc한글";
+		String[] terms = {"형태소", "분석기는", "문장을", "2014", "년에", "분석한다", "정보검색시스템을", "slab", "12",
+				"Lucene", "검색", "abc", "한글"};
+
+		MorphAnalyzer analyzer = new MorphAnalyzer();
+		StreamAnalyzer stream = new StreamAnalyzer(analyzer, 5);
+		stream.reset(new StringReader(text));
+
+		for(String term : terms) {
+			MorphToken token = stream.next();
+			assertEquals(term, token.getTerm());
+			assertEquals(term, text.substring(token.getStartOffset(), token.getEndOffset()));
+			assertEquals(LanguageSpliter.typeOf(term.charAt(0)), token.getType());
+			if(token.getType()==LanguageSpliter.TYPE_HAN) {
+				assertEquals(analyzer.analyze(term).toString(), token.getOutputs().toString());
+			} else {
+				assertNull(token.getOutputs());
+			}
+		}
+		assertNull(stream.next());
+		assertNull(stream.next());
+	}
+
+	public void testLongToken() throws Exception {
+		StringBuilder sb = new StringBuilder(" ");
+		for(int i=0;i<StreamAnalyzer.MAX_TOKEN_LENGTH+10;i++) sb.append('a');
+
+		StreamAnalyzer stream = new StreamAnalyzer(new MorphAnalyzer());
+		stream.reset(sb);
+		MorphToken token = stream.next();
+		assertEquals(1, token.getStartOffset());
+		assertEquals(StreamAnalyzer.MAX_TOKEN_LENGTH, token.getTerm().length());
+		token = stream.next();
+		assertEquals(1+StreamAnalyzer.MAX_TOKEN_LENGTH, token.getStartOffset());
+		assertEquals(sb.length(), token.getEndOffset());
+		assertNull(stream.next());
+	}
+}
@@ -0,0 +1,100 @@
+package org.apache.lucene.analysis.ko.morph;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.lucene.analysis.ko.utils.Dictionary;
+import org.apache.lucene.analysis.ko.utils.DictionaryUtil;
+import org.apache.lucene.analysis.ko.utils.UserDictionary;
+
+import junit.framework.TestCase;
+
+public class UserDictionaryTest extends TestCase {
+
+	private static final UserDictionary DIC = UserDictionary.read(Arrays.asList(
+			"! 사용자 사전", "", "뉴진스,100000000X", "학교,110000000X", "뉴진스학교:뉴진스,학교"));
+
+	public void testRead() throws Exception {
+		assertEquals(3, DIC.size());
+		assertNotNull(DIC.get("뉴진스"));
+		assertEquals(2, DIC.get("뉴진스학교").getCompounds().size());
+		assertNull(DIC.get("학생"));
+	}
+
+	public void testLookup() throws Exception {
+		Dictionary shared = Dictionary.getDefault();
+		Dictionary dic = shared.withUserDictionary(DIC);
+		assertSame(DIC, dic.getUserDictionary());
+		assertSame(dic, dic.withUserDictionary(DIC));
+		assertEquals(dic, shared.withUserDictionary(DIC));
+		assertFalse(dic.equals(shared));
+		assertEquals(shared, dic.withUserDictionary(null));
+
+		assertNull(shared.getWord("뉴진스"));
+		assertSame(DIC.get("뉴진스"), dic.getWord("뉴진스"));
+		assertSame(DIC.get("학교"), dic.getWord("학교"));
+		assertSame(shared.getWord("학생"), dic.getWord("학생"));
+
+		// the static lookups read the dictionary in use
+		assertNull(DictionaryUtil.getWord("뉴진스"));
+		Dictionary previous = Dictionary.use(dic);
+		try {
+			List<WordEntry> found = DictionaryUtil.commonPrefixSearch("뉴진스학교", 0, 5);
+			int n = found.size();
+			assertSame(DIC.get("뉴진스"), found.get(n-2));
+			assertSame(DIC.get("뉴진스학교"), found.get(n-1));
+			assertSame(DIC.get("학교"), DictionaryUtil.commonPrefixSearch("학교", 0, 2).get(1));
+		} finally {
+			Dictionary.use(previous);
+		}
+		assertNull(DictionaryUtil.getWord("뉴진스"));
+	}
+
+	public void testAnalyzer() throws Exception {
+		MorphAnalyzer plain = new MorphAnalyzer();
+		MorphAnalyzer user = new MorphAnalyzer();
+		user.setUserDictionary(DIC);
+		assertSame(DIC.get("뉴진스"), user.getDictionary().getWord("뉴진스"));
+		assertSame(user.getDictionary(), user.getDictionary());
+
+		AnalysisOutput o = user.analyzeBest("뉴진스가");
+		assertEquals("뉴진스", o.getStem());
+		assertEquals(AnalysisOutput.SCORE_CORRECT, o.getScore());
+		assertEquals(o.toString(), user.analyze("뉴진스가").get(0).toString());
+		assertTrue(plain.analyzeBest("뉴진스가").getScore()!=AnalysisOutput.SCORE_CORRECT);
+
+		assertEquals(plain.analyze("학교에서").toString(), user.analyze("학교에서").toString());
+		assertNull(DictionaryUtil.getWord("뉴진스"));
+	}
+
+	public void testSharedCache() throws Exception {
+		AnalysisCache cache = new AnalysisCache(100);
+		CompoundNounCache compoundCache = new CompoundNounCache(100);
+		MorphAnalyzer user = new MorphAnalyzer();
+		user.setUserDictionary(DIC);
+		MorphAnalyzer other = new MorphAnalyzer();
+		other.setUserDictionary(DIC);
+		MorphAnalyzer plain = new MorphAnalyzer();
+		for(MorphAnalyzer a : new MorphAnalyzer[] {user, other, plain}) {
+			a.setCache(cache);
+			a.setCompoundCache(compoundCache);
+		}
+
+		MorphAnalyzer uncached = new MorphAnalyzer();
+		MorphAnalyzer uncachedUser = new MorphAnalyzer();
+		uncachedUser.setUserDictionary(DIC);
+
+		String[] inputs = {"뉴진스가", "뉴진스도서관에서"};
+		for(String input : inputs) {
+			String expected = uncachedUser.analyze(input).toString();
+			assertFalse(expected.equals(uncached.analyze(input).toString()));
+			assertEquals(expected, user.analyze(input).toString());
+			// the results of the user dictionary are not seen by the plain analyzer
+			assertEquals(uncached.analyze(input).toString(), plain.analyze(input).toString());
+			// but shared by the analyzers with the same user dictionary
+			long hits = cache.getHitCount();
+			assertEquals(expected, other.analyze(input).toString());
+			assertEquals(hits+1, cache.getHitCount());
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package org.apache.lucene.analysis.ko.morph;
+
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+public class WordEntryTest extends TestCase {
+
+	public void testPackedFeatures() throws Exception {
+		WordEntry entry = new WordEntry("돕", "011000000B".toCharArray());
+		assertEquals("011000000B", new String(entry.getFeatures()));
+		assertEquals('0', entry.getFeature(WordEntry.IDX_NOUN));
+		assertEquals('B', entry.getIrregularType());
+		assertEquals('0', entry.getFeature(12));
+		assertTrue(entry.isVerb());
+		assertTrue(entry.isBusa());
+		assertFalse(entry.isNoun());
+		assertTrue(entry.hasAny(WordEntry.EXCEPT_VERB));
+		assertFalse(entry.hasAny(WordEntry.ALL_NOUN));
+
+		entry = new WordEntry("가건물", "90000X".toCharArray());
+		assertEquals("90000X", new String(entry.getFeatures()));
+		assertEquals('0', entry.getIrregularType());
+		assertEquals(0, entry.getFlags());
+
+		// features which can not be packed are kept as they are
+		entry = new WordEntry("가", "2000010000트".toCharArray());
+		assertEquals("2000010000트", new String(entry.getFeatures()));
+		assertEquals('트', entry.getFeature(10));
+		assertTrue(entry.isCompoundNoun());
+		assertTrue(entry.hasAny(WordEntry.NE));
+
+		entry = new WordEntry("가");
+		assertNull(entry.getFeatures());
+		assertEquals('0', entry.getFeature(WordEntry.IDX_NOUN));
+	}
+
+	public void testCompounds() throws Exception {
+		WordEntry entry = new WordEntry("가", new ArrayList<CompoundEntry>());
+		assertTrue(entry.getCompounds().isEmpty());
+	}
+}
@@ -0,0 +1,128 @@
+package org.apache.lucene.analysis.ko.morph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class WordSegmentAnalyzerTest extends TestCase {
+
+	private String join(List<List<AnalysisOutput>> words) {
+		StringBuilder sb = new StringBuilder();
+		for(List<AnalysisOutput> outputs : words) sb.append(outputs.get(0).getSource());
+		return sb.toString();
+	}
+
+	public void testSegment() throws Exception {
+		WordSegmentAnalyzer analyzer = new WordSegmentAnalyzer();
+
+		String[] inputs = {"가동블레이드압축기", "나는학교에서공부를하고있었다", "형태소분석기는문장을어절단위로분석한다"};
+		for(String input : inputs) {
+			List<List<AnalysisOutput>> words = analyzer.analyze(input);
+			assertTrue(words.size()>1);
+			assertEquals(input, join(words));
+		}
+	}
+
+	private String split(List<List<AnalysisOutput>> words) {
+		StringBuilder sb = new StringBuilder();
+		for(List<AnalysisOutput> outputs : words) {
+			if(sb.length()>0) sb.append('|');
+			sb.append(outputs.get(0).getSource());
+		}
+		return sb.toString();
+	}
+
+	public void testBestPath() throws Exception {
+		WordSegmentAnalyzer analyzer = new WordSegmentAnalyzer();
+		String[][] cases = {
+				{"마광수만고사지내다", "마광수만고사지|내다"},
+				{"거부과팍스로마나부터", "거|부과팍스로마나부터"},
+				{"아버지가방에들어가신다", "아버지가방에|들어가신다"},
+				{"간접원가유량계에서", "간접원가유량계에서"}};
+		for(String[] c : cases) {
+			List<List<AnalysisOutput>> result = new ArrayList<List<AnalysisOutput>>();
+			analyzer.analyze(c[0], result, true);
+			assertEquals(c[1], split(result));
+		}
+	}
+
+	/**
+	 * the best path of the lattice is the best of all the segmentations ranked by WordListComparator.
+	 */
+	public void testRanking() throws Exception {
+		WordSegmentAnalyzer analyzer = new WordSegmentAnalyzer();
+		MorphAnalyzer morphAnal = new MorphAnalyzer();
+		WordListComparator comparator = new WordListComparator();
+
+		String[] inputs = {"마광수만고사지내다", "거부과팍스로마나부터", "아버지가방에들어가신다", "가격차이보안경변환방식"};
+		for(String input : inputs) {
+			List<WordListCandidate> candidates = new ArrayList<WordListCandidate>();
+			segment(morphAnal, input, 0, new WordListCandidate(), candidates);
+			WordListCandidate best = Collections.min(candidates, comparator);
+
+			List<List<AnalysisOutput>> result = new ArrayList<List<AnalysisOutput>>();
+			analyzer.analyze(input, result, true);
+			WordListCandidate path = new WordListCandidate();
+			path.getWordList().addAll(result);
+			assertEquals(input, 0, comparator.compare(best, path));
+		}
+	}
+
+	/**
+	 * adds all the segmentations of input[start..] into the words of the lattice,
+	 * except those with two consecutive one character stems.
+	 */
+	private void segment(MorphAnalyzer morphAnal, String input, int start, WordListCandidate prefix,
+			List<WordListCandidate> candidates) throws Exception {
+		if(start==input.length()) {
+			candidates.add(prefix);
+			return;
+		}
+		for(int end=start+1;end<=input.length();end++) {
+			if(end-start>WordLattice.MAX_WORD_LENGTH && end-start<input.length()) continue;
+			List<AnalysisOutput> outputs = morphAnal.analyze(input.substring(start, end));
+			List<List<AnalysisOutput>> words = prefix.getWordList();
+			if(!words.isEmpty() && words.get(words.size()-1).get(0).getStem().length()==1
+					&& outputs.get(0).getStem().length()==1) continue;
+
+			WordListCandidate candidate = prefix.newCopy();
+			candidate.getWordList().add(outputs);
+			segment(morphAnal, input, end, candidate, candidates);
+		}
+	}
+
+	public void testLongText() throws Exception {
+		WordSegmentAnalyzer analyzer = new WordSegmentAnalyzer();
+		StringBuilder sb = new StringBuilder();
+		for(int i=0;i<20;i++) sb.append("형태소분석기는문장을분석한다");
+
+		List<List<AnalysisOutput>> result = new ArrayList<List<AnalysisOutput>>();
+		analyzer.analyze(sb.toString(), result, true);
+		assertEquals(sb.toString(), join(result));
+	}
+
+	public void testBudget() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for(int i=0;i<30;i++) sb.append("정보검색");
+		String input = sb.toString();
+
+		WordSegmentAnalyzer analyzer = new WordSegmentAnalyzer();
+		analyzer.setMaxCandidates(20);
+		List<List<AnalysisOutput>> result = new ArrayList<List<AnalysisOutput>>();
+		analyzer.analyze(input, result, true);
+		assertEquals(input, join(result));
+		assertEquals(1, analyzer.getExceededCount());
+
+		CompoundNounAnalyzer cnAnalyzer = new CompoundNounAnalyzer();
+		cnAnalyzer.setMaxProbes(50);
+		StringBuilder joined = new StringBuilder();
+		for(CompoundEntry entry : cnAnalyzer.analyze(input)) {
+			assertTrue(entry.isExist());
+			joined.append(entry.getWord());
+		}
+		assertEquals(input, joined.toString());
+		assertEquals(1, cnAnalyzer.getExceededCount());
+	}
+}
@@ -0,0 +1,85 @@
+package org.apache.lucene.analysis.ko.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.lucene.analysis.ko.morph.CompoundEntry;
+import org.apache.lucene.analysis.ko.morph.WordEntry;
+
+import junit.framework.TestCase;
+
+public class DictionarySnapshotTest extends TestCase {
+
+	public void testRoundTrip() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DictionarySnapshot.write(out);
+		DictionarySnapshot snapshot = DictionarySnapshot.read(ByteBuffer.wrap(out.toByteArray()));
+		assertNotNull(snapshot);
+
+		DoubleArrayTrie<WordEntry> text = DictionaryUtil.readDictionary();
+		DoubleArrayTrie<WordEntry> restored = snapshot.getDictionary();
+		assertEquals(text.size(), restored.size());
+
+		Iterator<WordEntry> expected = text.getPrefixedBy("");
+		Iterator<WordEntry> actual = restored.getPrefixedBy("");
+		Map<CompoundEntry, CompoundEntry> interned = new HashMap<CompoundEntry, CompoundEntry>();
+		while(expected.hasNext()) {
+			WordEntry e = expected.next();
+			WordEntry a = actual.next();
+			assertEquals(e.getWord(), a.getWord());
+			assertTrue(Arrays.equals(e.getFeatures(), a.getFeatures()));
+			assertEquals(e.getCompounds(), a.getCompounds());
+			assertSame(a, restored.get(e.getWord()));
+			for(CompoundEntry ce : a.getCompounds()) {
+				assertSame(ce, ce.intern(interned));
+			}
+		}
+		assertFalse(actual.hasNext());
+
+		WordEntry compound = restored.get("가건물");
+		assertEquals(2, compound.getCompounds().size());
+		assertEquals("건물", compound.getCompounds().get(1).getWord());
+		assertTrue(compound.getCompounds().get(1).isCompoundDic());
+		try {
+			compound.getCompounds().clear();
+			fail();
+		} catch(UnsupportedOperationException e) {
+		}
+
+		assertEquals(DictionaryUtil.readFile(KoreanEnv.FILE_JOSA), snapshot.getMap(KoreanEnv.FILE_JOSA));
+		assertEquals(DictionaryUtil.readAbbreviations(), snapshot.getMap(KoreanEnv.FILE_ABBREV));
+
+		assertTrue(Arrays.equals(SyllableUtil.readSyllableFeature(), snapshot.getSyllables()));
+
+		assertEquals(HanjaUtils.readHanja().size(), snapshot.getHanja().size());
+	}
+
+	public void testStale() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DictionarySnapshot.write(out);
+		byte[] bytes = out.toByteArray();
+		assertNotNull(DictionarySnapshot.read(ByteBuffer.wrap(bytes)));
+
+		// magic, version, the number count and the lengths of the 12 paths come
+		// before the last modified time and the checksum of dictionary.dic, whose
+		// low 32 bits are its CRC32.
+		int modified = (3+12)*4;
+		int crc = modified + 8 + 4;
+		bytes[crc] ^= 1;
+		// the file is not read while its time and length are the recorded ones
+		assertNotNull(DictionarySnapshot.read(ByteBuffer.wrap(bytes)));
+		bytes[modified+7] ^= 1;
+		assertNull(DictionarySnapshot.read(ByteBuffer.wrap(bytes)));
+		bytes[crc] ^= 1;
+		assertNotNull(DictionarySnapshot.read(ByteBuffer.wrap(bytes)));
+
+		String path = KoreanEnv.getInstance().getValue(KoreanEnv.FILE_DICTIONARY);
+		long checksum = DictionarySnapshot.checksum(path);
+		assertEquals(FileUtil.getClassLoaderFile(path).length(), checksum>>>32);
+		assertEquals(-1, DictionarySnapshot.checksum("org/apache/lucene/analysis/ko/dic/none.dic"));
+	}
+}
@@ -0,0 +1,144 @@
+package org.apache.lucene.analysis.ko.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.ko.morph.WordEntry;
+
+import junit.framework.TestCase;
+
+public class DoubleArrayTrieTest extends TestCase {
+
+	private DoubleArrayTrie<String> build() {
+		Map<String, String> entries = new LinkedHashMap<String, String>();
+		entries.put("정보", "정보");
+		entries.put("정보검색", "정보검색");
+		entries.put("검색", "검색");
+		entries.put("Slab", "slab");
+		entries.put("정", "정");
+		entries.put("검색", "검색2"); // the later one wins
+		return new DoubleArrayTrie<String>(entries, true);
+	}
+
+	public void testGet() throws Exception {
+		DoubleArrayTrie<String> trie = build();
+
+		assertEquals(5, trie.size());
+		assertEquals("정보", trie.get("정보"));
+		assertEquals("정보검색", trie.get("정보검색"));
+		assertEquals("검색2", trie.get("검색"));
+		assertEquals("slab", trie.get("SLAB"));
+		assertEquals("정", trie.get("정"));
+		assertNull(trie.get("정보검"));
+		assertNull(trie.get("보"));
+		assertNull(trie.get(""));
+		assertEquals("검색2", trie.get("정보검색", 2, 4));
+	}
+
+	public void testPrefix() throws Exception {
+		DoubleArrayTrie<String> trie = build();
+
+		assertTrue(trie.hasPrefix("정보검", 0, 3));
+		assertFalse(trie.hasPrefix("정보검사", 0, 4));
+
+		Iterator<String> iter = trie.getPrefixedBy("정");
+		assertEquals("정", iter.next());
+		assertEquals("정보", iter.next());
+		assertEquals("정보검색", iter.next());
+		assertFalse(iter.hasNext());
+
+		assertFalse(trie.getPrefixedBy("없").hasNext());
+
+		iter = trie.getPrefixedBy("");
+		String[] all = {"slab", "검색2", "정", "정보", "정보검색"};
+		for(String value : all) assertEquals(value, iter.next());
+		assertFalse(iter.hasNext());
+
+		DoubleArrayTrie<WordEntry> words = Dictionary.getDefault().getWords();
+		int count = 0;
+		String last = "";
+		for(Iterator<WordEntry> it=words.getPrefixedBy("");it.hasNext();count++) {
+			String word = words.canonicalCase(it.next().getWord());
+			assertTrue(word.compareTo(last)>0);
+			last = word;
+		}
+		assertEquals(words.size(), count);
+	}
+
+	public void testDictionary() throws Exception {
+		WordEntry entry = DictionaryUtil.getWord("학교");
+		assertNotNull(entry);
+		assertEquals("학교", entry.getWord());
+		assertNotNull(DictionaryUtil.getAllNoun("정보"));
+		assertTrue(DictionaryUtil.findWithPrefix("정보검").hasNext());
+
+		DictionaryUtil.addEntry(new WordEntry("아리랑형태소", "100000000X".toCharArray()));
+		assertNotNull(DictionaryUtil.getNoun("아리랑형태소"));
+		assertTrue(DictionaryUtil.findWithPrefix("아리랑형").hasNext());
+	}
+
+	public void testAddedEntries() throws Exception {
+		Dictionary dic = Dictionary.load();
+		for(int i=0;i<100;i++) {
+			dic = dic.withEntry(new WordEntry("아리랑층"+i, "100000000X".toCharArray()));
+		}
+		// 100 = 64+32+4, one trie for each bit
+		assertEquals(3, dic.getAddedEntries().size());
+		for(int i=0;i<100;i++) {
+			assertEquals("아리랑층"+i, dic.getWord("아리랑층"+i).getWord());
+		}
+		assertSame(dic.getWords().get("학교"), dic.getWord("학교"));
+
+		WordEntry newer = new WordEntry("아리랑층7", "200000000X".toCharArray());
+		dic = dic.withEntry(newer);
+		assertSame(newer, dic.getWord("아리랑층7"));
+
+		List<WordEntry> found = new ArrayList<WordEntry>();
+		dic.commonPrefixSearch("아리랑층77", 0, 6, found);
+		assertSame(newer, found.get(found.size()-2));
+		assertEquals("아리랑층77", found.get(found.size()-1).getWord());
+
+		int count = 0;
+		for(Iterator<WordEntry> it=dic.findWithPrefix("아리랑층");it.hasNext();it.next()) count++;
+		assertEquals(100, count);
+	}
+
+	public void testCommonPrefixSearch() throws Exception {
+		String text = "정보검색시스템";
+		List<WordEntry> entries = DictionaryUtil.commonPrefixSearch(text, 0, text.length());
+		assertFalse(entries.isEmpty());
+		int last = 0;
+		for(WordEntry entry : entries) {
+			int length = entry.getWord().length();
+			assertTrue(length>last);
+			assertSame(DictionaryUtil.getWord(text.substring(0, length)), entry);
+			last = length;
+		}
+		for(int i=1;i<=text.length();i++) {
+			WordEntry entry = DictionaryUtil.getWord(text.substring(0, i));
+			if(entry!=null) assertTrue(entries.contains(entry));
+		}
+
+		assertTrue(DictionaryUtil.commonPrefixSearch("학교", 1, 1).isEmpty());
+
+		DictionaryUtil.addEntry(new WordEntry("아리랑분석기", "100000000X".toCharArray()));
+		text = "아리랑분석기로";
+		entries = DictionaryUtil.commonPrefixSearch(text, 0, text.length());
+		assertEquals("아리랑분석기", entries.get(entries.size()-1).getWord());
+	}
+
+	public void testReverseJosa() throws Exception {
+		DoubleArrayTrie<String> josas = DictionaryUtil.getReverseJosa();
+		String text = "학교에서부터";
+		int s = 0;
+		for(int i=text.length()-1;i>0&&s>=0;i--) {
+			s = josas.next(s, text.charAt(i));
+			if(s<0) break;
+			assertEquals(DictionaryUtil.existJosa(text.substring(i)), josas.valueAt(s)!=null);
+		}
+		assertEquals("에서부터", josas.get("터부서에"));
+	}
+}
@@ -0,0 +1,29 @@
+package org.apache.lucene.analysis.ko.utils;
+
+import junit.framework.TestCase;
+
+public class MorphUtilTest extends TestCase {
+
+	public void testJamo() throws Exception {
+		for(char c=0xAC00;c<=0xD7A3;c++) {
+			char[] jasos = MorphUtil.decompose(c);
+			assertEquals(jasos[0], MorphUtil.choseongOf(c));
+			assertEquals(jasos[1], MorphUtil.jungseongOf(c));
+			assertEquals(jasos.length==3 ? jasos[2] : '\0', MorphUtil.jongseongOf(c));
+			assertEquals(jasos.length==3, MorphUtil.hasJongseong(c));
+			assertEquals(jasos.length==2, MorphUtil.isOpenSyllable(c));
+
+			int jong = MorphUtil.jongseongIndex(c);
+			assertEquals(c, MorphUtil.makeChar(MorphUtil.makeChar(c, 0), jong));
+			assertEquals(c, MorphUtil.replaceJongsung(MorphUtil.makeChar(c, 0), c));
+		}
+
+		assertEquals('각', MorphUtil.makeChar('가', 1));
+		assertEquals('궈', MorphUtil.makeChar('거', 14, 0));
+		assertEquals('A', MorphUtil.choseongOf('A'));
+		assertEquals('\0', MorphUtil.jongseongOf('A'));
+		assertEquals(-1, MorphUtil.jamoOf('ㄴ'));
+		assertFalse(MorphUtil.hasJongseong('ㄴ'));
+		assertFalse(MorphUtil.isOpenSyllable('ㄴ'));
+	}
+}